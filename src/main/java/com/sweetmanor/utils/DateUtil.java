@@ -1,7 +1,28 @@
 package com.sweetmanor.utils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.commons.lang3.time.DateUtils;
@@ -17,11 +38,25 @@ import org.apache.commons.lang3.time.DateUtils;
 public class DateUtil {
 	public static final String DEFAULT_FORMAT = "yyyy-MM-dd HH:mm:ss"; // 默认日期格式化模式
 
+	private static final TimeUnit[] DURATION_UNITS = TimeUnit.values(); // 按 ordinal 从纳秒到天
+	private static final String[] DURATION_SUFFIXES = { "ns", "us", "ms", "s", "m", "h", "d" };
+	private static final int DEFAULT_LENGTH = 19;// DEFAULT_FORMAT 格式化结果的长度
+	private static final int FAST_MIN_YEAR = 1583;// 快速解析支持的最小年份，之前的日期按 GregorianCalendar（儒略历）处理
+	private static final long FAST_MIN_SECOND = LocalDate.of(1583, 1, 2).toEpochDay() * 86400;// 快速格式化支持的最小秒值
+	private static final long FAST_MAX_SECOND = LocalDate.of(9999, 12, 30).toEpochDay() * 86400;// 快速格式化支持的最大秒值
+	private static final long DAYS_0000_TO_1970 = 719528;// 公元0年1月1日至1970年1月1日的天数（ISO历法）
+
+	private static volatile SecondCache secondCache;// 最近一次快速格式化的结果
+
+	private static final int MAX_FORMATTERS = 256;// 最多缓存的格式化对象个数
+	private static final Map<String, Formatter> FORMATTERS = new ConcurrentHashMap<>();// 按时区和模式缓存的格式化对象
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(64));// 格式化到字符数组时使用的线程缓冲区
+
 	/**
 	 * @return DEFAULT_FORMAT格式的当前日期字符串
 	 */
 	public static String getDate() {
-		return DateFormatUtils.format(new Date(), DEFAULT_FORMAT);
+		return formatDefault(System.currentTimeMillis());
 	}
 
 	/**
@@ -29,7 +64,644 @@ public class DateUtil {
 	 * @return DEFAULT_FORMAT格式的日期字符串
 	 */
 	public static String format(Date date) {
-		return DateFormatUtils.format(date, DEFAULT_FORMAT);
+		return formatDefault(date.getTime());
+	}
+
+	/**
+	 * DEFAULT_FORMAT 格式的快速格式化：按整数运算直接计算各字段，同一秒内的重复调用返回同一个缓存的字符串。<br />
+	 * 每次调用时读取当前默认时区，跟随 TimeZone.setDefault 的修改；1583年之前和9999年之后的日期按原方式格式化，以保持与 GregorianCalendar 一致。
+	 * 
+	 * @param millis 待格式化的毫秒值
+	 * @return DEFAULT_FORMAT格式的日期字符串
+	 */
+	public static String formatDefault(long millis) {
+		long second = Math.floorDiv(millis, 1000);
+		TimeZone zone = TimeZone.getDefault();
+		SecondCache cache = secondCache;
+		if (cache != null && cache.second == second && cache.zoneId.equals(zone.getID()))
+			return cache.text;
+
+		if (second < FAST_MIN_SECOND || second > FAST_MAX_SECOND)
+			return DateFormatUtils.format(millis, DEFAULT_FORMAT, zone);
+		char[] chars = new char[DEFAULT_LENGTH];
+		writeDefault(second, chars, 0, zone);
+		String text = new String(chars);
+		secondCache = new SecondCache(second, zone.getID(), text);
+		return text;
+	}
+
+	/**
+	 * DEFAULT_FORMAT 格式的快速格式化，结果直接写入字符数组，使用当前默认时区
+	 * 
+	 * @param millis 待格式化的毫秒值，年份必须在1583至9999之间
+	 * @param dest   目标数组，从 offset 开始写入19个字符
+	 * @param offset 目标数组起始位置
+	 * @return 写入的字符数：19
+	 * @throws IllegalArgumentException 日期超出支持的范围
+	 */
+	public static int formatDefault(long millis, char[] dest, int offset) {
+		long second = Math.floorDiv(millis, 1000);
+		if (second < FAST_MIN_SECOND || second > FAST_MAX_SECOND)
+			throw new IllegalArgumentException("日期超出快速格式化支持的范围：" + millis);
+		writeDefault(second, dest, offset, TimeZone.getDefault());
+		return DEFAULT_LENGTH;
+	}
+
+	/**
+	 * 解析 DEFAULT_FORMAT 格式的日期字符串，只读取 text 中从 offset 开始的19个字符，使用当前默认时区。<br />
+	 * 1583年之前的日期与 {@link #formatDefault(long)} 一样按 GregorianCalendar 处理（1582-10-15 之前为儒略历），0000年不存在。
+	 * 
+	 * @param text   包含日期字符串的字符序列, not null
+	 * @param offset 起始位置
+	 * @return 毫秒值
+	 * @throws DateTimeParseException 格式不正确或日期不存在
+	 */
+	public static long parseDefault(CharSequence text, int offset) {
+		if (offset < 0 || text.length() - offset < DEFAULT_LENGTH)
+			throw new DateTimeParseException("日期字符串长度不足", text, offset);
+		int year = parseDigits(text, offset, 4);
+		int month = parseDigits(text, offset + 5, 2);
+		int day = parseDigits(text, offset + 8, 2);
+		int hour = parseDigits(text, offset + 11, 2);
+		int minute = parseDigits(text, offset + 14, 2);
+		int second = parseDigits(text, offset + 17, 2);
+		if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 //
+				|| text.charAt(offset + 4) != '-' || text.charAt(offset + 7) != '-' || text.charAt(offset + 10) != ' '
+				|| text.charAt(offset + 13) != ':' || text.charAt(offset + 16) != ':')
+			throw new DateTimeParseException("日期格式不正确，应为" + DEFAULT_FORMAT, text, offset);
+		if (month < 1 || month > 12 || day < 1 || hour > 23 || minute > 59 || second > 59)
+			throw new DateTimeParseException("日期不存在", text, offset);
+
+		TimeZone zone = TimeZone.getDefault();
+		if (year < FAST_MIN_YEAR) { // 与格式化一致，按 GregorianCalendar 严格校验和计算
+			Calendar cal = Calendar.getInstance(zone);
+			cal.clear();
+			cal.setLenient(false);
+			cal.set(year, month - 1, day, hour, minute, second);
+			try {
+				return cal.getTimeInMillis();
+			} catch (IllegalArgumentException e) { // 0000年、儒略历中不存在的日期或1582年10月切换时跳过的日期
+				throw new DateTimeParseException("日期不存在", text, offset);
+			}
+		}
+		if (day > lengthOfMonth(year, month))
+			throw new DateTimeParseException("日期不存在", text, offset);
+
+		long local = toEpochDay(year, month, day) * 86400 + hour * 3600 + minute * 60 + second;
+		int zoneOffset = offsetAt(local, zone);
+		long epochSecond = local - zoneOffset;
+		if (offsetAt(epochSecond, zone) == zoneOffset && offsetAt(epochSecond - 10800, zone) == zoneOffset
+				&& offsetAt(epochSecond + 10800, zone) == zoneOffset) // 前后3小时内没有时区切换，本地时间与时刻一一对应
+			return epochSecond * 1000;
+
+		// 时区切换附近的本地时间可能不存在或重复，按 Calendar 的规则处理
+		Calendar cal = Calendar.getInstance(zone);
+		cal.clear();
+		cal.set(year, month - 1, day, hour, minute, second);
+		return cal.getTimeInMillis();
+	}
+
+	/**
+	 * 按 DEFAULT_FORMAT 格式写入19个字符
+	 */
+	private static void writeDefault(long epochSecond, char[] dest, int offset, TimeZone zone) {
+		long local = epochSecond + offsetAt(epochSecond, zone);
+		long epochDay = Math.floorDiv(local, 86400);
+		int secondOfDay = Math.floorMod(local, 86400);
+		int date = toDateNumber(epochDay);
+
+		writeDigits(date / 10000, dest, offset, 4);
+		dest[offset + 4] = '-';
+		writeDigits(date / 100 % 100, dest, offset + 5, 2);
+		dest[offset + 7] = '-';
+		writeDigits(date % 100, dest, offset + 8, 2);
+		dest[offset + 10] = ' ';
+		writeDigits(secondOfDay / 3600, dest, offset + 11, 2);
+		dest[offset + 13] = ':';
+		writeDigits(secondOfDay / 60 % 60, dest, offset + 14, 2);
+		dest[offset + 16] = ':';
+		writeDigits(secondOfDay % 60, dest, offset + 17, 2);
+	}
+
+	/**
+	 * 按十进制写入指定位数的非负整数，不足时左侧补0
+	 */
+	private static void writeDigits(int value, char[] dest, int offset, int digits) {
+		for (int i = offset + digits - 1; i >= offset; i--) {
+			dest[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+	}
+
+	/**
+	 * 读取指定位数的十进制数字，包含非数字字符时返回-1
+	 */
+	private static int parseDigits(CharSequence text, int offset, int digits) {
+		int value = 0;
+		for (int i = offset; i < offset + digits; i++) {
+			int d = text.charAt(i) - '0';
+			if (d < 0 || d > 9)
+				return -1;
+			value = value * 10 + d;
+		}
+		return value;
+	}
+
+	/**
+	 * 查询时区在指定时刻的偏移秒数，与 Calendar 使用相同的时区数据
+	 */
+	private static int offsetAt(long epochSecond, TimeZone zone) {
+		return zone.getOffset(epochSecond * 1000) / 1000;
+	}
+
+	/**
+	 * 按ISO历法计算日期距1970-01-01的天数，算法与 LocalDate.toEpochDay() 一致
+	 * 
+	 * @param year  年
+	 * @param month 月：1-12
+	 * @param day   日
+	 */
+	static long toEpochDay(int year, int month, int day) {
+		long total = 365L * year;
+		if (year >= 0)
+			total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+		else
+			total -= year / -4 - year / -100 + year / -400;
+		total += (367 * month - 362) / 12;
+		total += day - 1;
+		if (month > 2) {
+			total--;
+			if (!isLeapYear(year))
+				total--;
+		}
+		return total - DAYS_0000_TO_1970;
+	}
+
+	/**
+	 * 将距1970-01-01的天数按ISO历法转换为 yyyyMMdd 格式的整数，算法与 LocalDate.ofEpochDay() 一致
+	 */
+	static int toDateNumber(long epochDay) {
+		long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;// 调整为从0000-03-01开始计算
+		long adjust = 0;
+		if (zeroDay < 0) {
+			long adjustCycles = (zeroDay + 1) / 146097 - 1;
+			adjust = adjustCycles * 400;
+			zeroDay += -adjustCycles * 146097;
+		}
+		long yearEst = (400 * zeroDay + 591) / 146097;
+		long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+		if (doyEst < 0) {
+			yearEst--;
+			doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+		}
+		yearEst += adjust;
+		int marchDoy0 = (int) doyEst;
+		int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+		int month = (marchMonth0 + 2) % 12 + 1;
+		int day = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+		yearEst += marchMonth0 / 10;
+		return (int) yearEst * 10000 + month * 100 + day;
+	}
+
+	/**
+	 * ISO历法闰年判断
+	 */
+	static boolean isLeapYear(int year) {
+		return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+	}
+
+	/**
+	 * ISO历法指定月份的天数
+	 */
+	static int lengthOfMonth(int year, int month) {
+		if (month == 2)
+			return isLeapYear(year) ? 29 : 28;
+		return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+	}
+
+	/**
+	 * 基于毫秒值的日期计算：直接按天数进行整数运算，不创建 Date 和 Calendar 对象，适合大批量时间数据的分组统计。<br />
+	 * 各方法按指定时区的本地时间计算，每个时区分别缓存两次切换之间的偏移量，时区切换附近的本地时间按 ZonedDateTime 的规则处理。
+	 * 不指定时区的方法使用调用时的默认时区。
+	 */
+	public static final class Millis {
+		private static final long MILLIS_PER_DAY = 86_400_000L;// 每天的毫秒数
+		private static final int NO_OFFSET = Integer.MIN_VALUE;// 没有优先使用的偏移量
+		private static final int BULK_CHUNK = 1 << 14;// 批量计算时每个分段的元素个数
+
+		private static final Map<ZoneId, ZoneCache> ZONE_CACHES = new ConcurrentHashMap<>();// 按时区缓存的偏移量，只缓存非固定偏移的时区，个数受时区数据库限制
+
+		private Millis() {
+		}
+
+		/**
+		 * @return 默认时区中所在日期的 00:00:00.000
+		 */
+		public static long startOfDay(long millis) {
+			return startOfDay(millis, ZoneId.systemDefault());
+		}
+
+		/**
+		 * @param millis 毫秒值
+		 * @param zone   时区, not null
+		 * @return 所在日期的 00:00:00.000
+		 */
+		public static long startOfDay(long millis, ZoneId zone) {
+			return fromLocal(epochDay(millis, zone) * MILLIS_PER_DAY, zone);
+		}
+
+		/**
+		 * @return 默认时区中所在日期的 23:59:59.999
+		 */
+		public static long endOfDay(long millis) {
+			return endOfDay(millis, ZoneId.systemDefault());
+		}
+
+		/**
+		 * @param millis 毫秒值
+		 * @param zone   时区, not null
+		 * @return 所在日期的 23:59:59.999，即下一天开始时刻的前一毫秒
+		 */
+		public static long endOfDay(long millis, ZoneId zone) {
+			return fromLocal((epochDay(millis, zone) + 1) * MILLIS_PER_DAY, zone) - 1;
+		}
+
+		/**
+		 * @param millis 毫秒值
+		 * @param zone   时区, not null
+		 * @return 所在小时的 mm:ss.SSS 为 00:00.000 的时刻
+		 */
+		public static long startOfHour(long millis, ZoneId zone) {
+			int offset = offsetAt(Math.floorDiv(millis, 1000), zone);
+			long local = millis + offset * 1000L;
+			return fromLocal(local - Math.floorMod(local, 3_600_000L), zone, offset);
+		}
+
+		/**
+		 * @return 默认时区中所在周第一天（周日）的 00:00:00.000
+		 */
+		public static long startOfWeek(long millis) {
+			return startOfWeek(millis, ZoneId.systemDefault(), DayOfWeek.SUNDAY);
+		}
+
+		/**
+		 * @param millis         毫秒值
+		 * @param zone           时区, not null
+		 * @param firstDayOfWeek 每周的第一天, not null
+		 * @return 所在周第一天的 00:00:00.000
+		 */
+		public static long startOfWeek(long millis, ZoneId zone, DayOfWeek firstDayOfWeek) {
+			long epochDay = epochDay(millis, zone);
+			return fromLocal((epochDay - daysFromWeekStart(epochDay, firstDayOfWeek)) * MILLIS_PER_DAY, zone);
+		}
+
+		/**
+		 * @return 默认时区中所在月第一天的 00:00:00.000
+		 */
+		public static long startOfMonth(long millis) {
+			return startOfMonth(millis, ZoneId.systemDefault());
+		}
+
+		/**
+		 * @param millis 毫秒值
+		 * @param zone   时区, not null
+		 * @return 所在月第一天的 00:00:00.000
+		 */
+		public static long startOfMonth(long millis, ZoneId zone) {
+			int date = toDateNumber(epochDay(millis, zone));
+			return fromLocal(toEpochDay(date / 10000, date / 100 % 100, 1) * MILLIS_PER_DAY, zone);
+		}
+
+		/**
+		 * @return 默认时区中所在月最后一天的 23:59:59.999
+		 */
+		public static long endOfMonth(long millis) {
+			return endOfMonth(millis, ZoneId.systemDefault());
+		}
+
+		/**
+		 * @param millis 毫秒值
+		 * @param zone   时区, not null
+		 * @return 所在月最后一天的 23:59:59.999，即下月开始时刻的前一毫秒
+		 */
+		public static long endOfMonth(long millis, ZoneId zone) {
+			int date = toDateNumber(epochDay(millis, zone));
+			int year = date / 10000, month = date / 100 % 100;
+			long nextMonth = toEpochDay(year, month, 1) + lengthOfMonth(year, month);
+			return fromLocal(nextMonth * MILLIS_PER_DAY, zone) - 1;
+		}
+
+		/**
+		 * 获取所在月的最后一天，本地时间不变
+		 * 
+		 * @param millis 毫秒值
+		 * @param zone   时区, not null
+		 * @return 计算后的毫秒值
+		 */
+		public static long lastDayOfMonth(long millis, ZoneId zone) {
+			int offset = offsetAt(Math.floorDiv(millis, 1000), zone);
+			long local = millis + offset * 1000L;
+			long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+			int date = toDateNumber(epochDay);
+			int year = date / 10000, month = date / 100 % 100;
+			long lastDay = toEpochDay(year, month, lengthOfMonth(year, month));
+			return fromLocal(local + (lastDay - epochDay) * MILLIS_PER_DAY, zone, offset);
+		}
+
+		/**
+		 * 增加指定天数，本地时间不变
+		 * 
+		 * @param millis 毫秒值
+		 * @param days   增加的天数，可以为负值
+		 * @param zone   时区, not null
+		 * @return 计算后的毫秒值
+		 */
+		public static long addDays(long millis, int days, ZoneId zone) {
+			int offset = offsetAt(Math.floorDiv(millis, 1000), zone);
+			return fromLocal(millis + offset * 1000L + days * MILLIS_PER_DAY, zone, offset);
+		}
+
+		/**
+		 * 增加指定月数，本地时间不变，日超出目标月份天数时取目标月份的最后一天
+		 * 
+		 * @param millis 毫秒值
+		 * @param months 增加的月数，可以为负值
+		 * @param zone   时区, not null
+		 * @return 计算后的毫秒值
+		 */
+		public static long addMonths(long millis, int months, ZoneId zone) {
+			int offset = offsetAt(Math.floorDiv(millis, 1000), zone);
+			long local = millis + offset * 1000L;
+			long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+			int date = toDateNumber(epochDay);
+			long monthIndex = (date / 10000) * 12L + date / 100 % 100 - 1 + months;
+			int year = (int) Math.floorDiv(monthIndex, 12), month = Math.floorMod(monthIndex, 12) + 1;
+			int day = Math.min(date % 100, lengthOfMonth(year, month));
+			return fromLocal(local + (toEpochDay(year, month, day) - epochDay) * MILLIS_PER_DAY, zone, offset);
+		}
+
+		/**
+		 * @param millis 毫秒值
+		 * @param zone   时区, not null
+		 * @return 本地日期距1970-01-01的天数
+		 */
+		public static long epochDay(long millis, ZoneId zone) {
+			return Math.floorDiv(toLocal(millis, zone), MILLIS_PER_DAY);
+		}
+
+		/**
+		 * 批量截取时间，结果为各元素所在时间段的开始时刻，周按周日开始计算
+		 * 
+		 * @param millis 毫秒值数组, not null
+		 * @param unit   截取单位：HOURS、DAYS、WEEKS、MONTHS
+		 * @param zone   时区, not null
+		 * @param dest   结果数组, not null，长度不能小于 millis
+		 * @see #truncate(long[], ChronoUnit, ZoneId, long[], boolean)
+		 */
+		public static void truncate(long[] millis, ChronoUnit unit, ZoneId zone, long[] dest) {
+			truncate(millis, unit, zone, dest, false);
+		}
+
+		/**
+		 * 批量截取时间，结果为各元素所在时间段的开始时刻，周按周日开始计算。<br />
+		 * 每个分段记录上一个元素所在时间段的起止时刻，按时间排序的数据大部分元素只需要两次比较。
+		 * 
+		 * @param millis   毫秒值数组, not null
+		 * @param unit     截取单位：HOURS、DAYS、WEEKS、MONTHS
+		 * @param zone     时区, not null
+		 * @param dest     结果数组, not null，长度不能小于 millis
+		 * @param parallel 是否使用 ForkJoinPool.commonPool() 分段并行计算
+		 * @throws IllegalArgumentException 截取单位不支持或结果数组长度不足
+		 */
+		public static void truncate(long[] millis, ChronoUnit unit, ZoneId zone, long[] dest, boolean parallel) {
+			checkBulkArguments(unit, millis.length, dest.length);
+			forEachRange(millis.length, parallel, (from, to) -> {
+				long start = 0, end = 0;// 上一个元素所在时间段 [start, end)
+				for (int i = from; i < to; i++) {
+					long m = millis[i];
+					if (m < start || m >= end) {
+						if (unit == ChronoUnit.HOURS) {
+							start = startOfHour(m, zone);
+							end = start + 1;
+							if (Math.floorMod(toLocal(start, zone), 3_600_000L) == 0) { // 整点存在时，到下一个整点或下一次时区切换前都属于同一小时
+								ZoneOffsetTransition next = zone.getRules().nextTransition(Instant.ofEpochMilli(start));
+								end = start + 3_600_000L;
+								if (next != null)
+									end = Math.min(end, next.toEpochSecond() * 1000);
+							}
+						} else {
+							long epochDay = epochDay(m, zone);
+							long startDay, endDay;
+							if (unit == ChronoUnit.DAYS) {
+								startDay = epochDay;
+								endDay = epochDay + 1;
+							} else if (unit == ChronoUnit.WEEKS) {
+								startDay = epochDay - daysFromWeekStart(epochDay, DayOfWeek.SUNDAY);
+								endDay = startDay + 7;
+							} else {
+								int date = toDateNumber(epochDay);
+								int year = date / 10000, month = date / 100 % 100;
+								startDay = toEpochDay(year, month, 1);
+								endDay = startDay + lengthOfMonth(year, month);
+							}
+							start = fromLocal(startDay * MILLIS_PER_DAY, zone);
+							end = fromLocal(endDay * MILLIS_PER_DAY, zone);
+						}
+					}
+					dest[i] = start;
+				}
+			});
+		}
+
+		/**
+		 * 批量计算时间段编号，适合作为分组统计的键值
+		 * 
+		 * @param millis 毫秒值数组, not null
+		 * @param unit   时间段单位：HOURS、DAYS、WEEKS、MONTHS
+		 * @param zone   时区, not null
+		 * @param dest   结果数组, not null，长度不能小于 millis
+		 * @see #bucket(long[], ChronoUnit, ZoneId, int[], boolean)
+		 */
+		public static void bucket(long[] millis, ChronoUnit unit, ZoneId zone, int[] dest) {
+			bucket(millis, unit, zone, dest, false);
+		}
+
+		/**
+		 * 批量计算时间段编号，按本地时间计算，适合作为分组统计的键值：
+		 * 
+		 * <pre>
+		 * 		<ul>
+		 * 			<li>HOURS：距1970-01-01 00:00的小时数；
+		 * 			<li>DAYS：距1970-01-01的天数，与 epochDay 一致；
+		 * 			<li>WEEKS：所在周第一天（周日）距1970-01-01的天数；
+		 * 			<li>MONTHS：距1970年1月的月数。
+		 * 		</ul>
+		 * </pre>
+		 * 
+		 * @param millis   毫秒值数组, not null
+		 * @param unit     时间段单位：HOURS、DAYS、WEEKS、MONTHS
+		 * @param zone     时区, not null
+		 * @param dest     结果数组, not null，长度不能小于 millis
+		 * @param parallel 是否使用 ForkJoinPool.commonPool() 分段并行计算
+		 * @throws IllegalArgumentException 时间段单位不支持或结果数组长度不足
+		 */
+		public static void bucket(long[] millis, ChronoUnit unit, ZoneId zone, int[] dest, boolean parallel) {
+			checkBulkArguments(unit, millis.length, dest.length);
+			forEachRange(millis.length, parallel, (from, to) -> {
+				long startDay = 0, endDay = 0;// 上一个元素所在月份的天数范围 [startDay, endDay)
+				int monthKey = 0;
+				for (int i = from; i < to; i++) {
+					long local = toLocal(millis[i], zone);
+					if (unit == ChronoUnit.HOURS) {
+						dest[i] = (int) Math.floorDiv(local, 3_600_000L);
+						continue;
+					}
+					long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+					if (unit == ChronoUnit.DAYS) {
+						dest[i] = (int) epochDay;
+					} else if (unit == ChronoUnit.WEEKS) {
+						dest[i] = (int) (epochDay - daysFromWeekStart(epochDay, DayOfWeek.SUNDAY));
+					} else {
+						if (epochDay < startDay || epochDay >= endDay) {
+							int date = toDateNumber(epochDay);
+							int year = date / 10000, month = date / 100 % 100;
+							startDay = toEpochDay(year, month, 1);
+							endDay = startDay + lengthOfMonth(year, month);
+							monthKey = (year - 1970) * 12 + month - 1;
+						}
+						dest[i] = monthKey;
+					}
+				}
+			});
+		}
+
+		/**
+		 * 批量计算的参数检查
+		 */
+		private static void checkBulkArguments(ChronoUnit unit, int length, int destLength) {
+			if (unit != ChronoUnit.HOURS && unit != ChronoUnit.DAYS && unit != ChronoUnit.WEEKS
+					&& unit != ChronoUnit.MONTHS)
+				throw new IllegalArgumentException("不支持的时间单位：" + unit);
+			if (destLength < length)
+				throw new IllegalArgumentException("结果数组长度不足：" + destLength + " < " + length);
+		}
+
+		/**
+		 * 按固定大小分段处理 [0, length) 范围，并行时各分段在 ForkJoinPool.commonPool() 中执行
+		 */
+		private static void forEachRange(int length, boolean parallel, RangeAction action) {
+			if (!parallel || length <= BULK_CHUNK) {
+				action.run(0, length);
+				return;
+			}
+			IntStream.range(0, (length + BULK_CHUNK - 1) / BULK_CHUNK).parallel()
+					.forEach(chunk -> action.run(chunk * BULK_CHUNK, Math.min(length, (chunk + 1) * BULK_CHUNK)));
+		}
+
+		/**
+		 * 分段处理回调接口
+		 */
+		@FunctionalInterface
+		private interface RangeAction {
+			/**
+			 * 处理 [from, to) 范围内的元素
+			 */
+			void run(int from, int to);
+		}
+
+		/**
+		 * 计算指定日期距所在周第一天的天数
+		 */
+		static int daysFromWeekStart(long epochDay, DayOfWeek firstDayOfWeek) {
+			int dayOfWeek = Math.floorMod(epochDay + 3, 7);// 1970-01-01是周四，周一为0
+			return Math.floorMod(dayOfWeek - (firstDayOfWeek.getValue() - 1), 7);
+		}
+
+		/**
+		 * 毫秒值转换为本地时间的毫秒值（以本地时间作为UTC时间计算的毫秒值）
+		 */
+		static long toLocal(long millis, ZoneId zone) {
+			return millis + offsetAt(Math.floorDiv(millis, 1000), zone) * 1000L;
+		}
+
+		/**
+		 * 本地时间的毫秒值转换为毫秒值，不存在的本地时间顺延，重复的本地时间取较早的偏移量
+		 */
+		static long fromLocal(long localMillis, ZoneId zone) {
+			return fromLocal(localMillis, zone, NO_OFFSET);
+		}
+
+		/**
+		 * 本地时间的毫秒值转换为毫秒值，不存在或重复的本地时间按 ZonedDateTime.ofLocal 的规则处理
+		 * 
+		 * @param preferredOffset 重复的本地时间优先使用的偏移秒数，NO_OFFSET表示没有优先的偏移量
+		 */
+		static long fromLocal(long localMillis, ZoneId zone, int preferredOffset) {
+			long localSecond = Math.floorDiv(localMillis, 1000);
+			int offset = offsetAt(localSecond, zone);
+			long second = localSecond - offset;
+			if (offsetAt(second, zone) == offset && offsetAt(second - 10800, zone) == offset
+					&& offsetAt(second + 10800, zone) == offset) // 前后3小时内没有时区切换，本地时间与时刻一一对应
+				return localMillis - offset * 1000L;
+
+			int nanos = Math.floorMod(localMillis, 1000) * 1_000_000;
+			LocalDateTime local = LocalDateTime.ofEpochSecond(localSecond, nanos, ZoneOffset.UTC);
+			ZoneOffset preferred = preferredOffset == NO_OFFSET ? null : ZoneOffset.ofTotalSeconds(preferredOffset);
+			return ZonedDateTime.ofLocal(local, zone, preferred).toInstant().toEpochMilli();
+		}
+
+		/**
+		 * 查询时区在指定时刻的偏移秒数：每个时区缓存最近一次查询的偏移量及其有效区间，区间内的查询不再访问时区规则，
+		 * 不同时区交替查询时互不影响
+		 */
+		private static int offsetAt(long epochSecond, ZoneId zone) {
+			if (zone instanceof ZoneOffset)
+				return ((ZoneOffset) zone).getTotalSeconds();
+			ZoneCache cache = ZONE_CACHES.get(zone);
+			if (cache != null && epochSecond >= cache.from && epochSecond < cache.to)
+				return cache.offset;
+
+			ZoneRules rules = zone.getRules();
+			Instant instant = Instant.ofEpochSecond(epochSecond);
+			int offset = rules.getOffset(instant).getTotalSeconds();
+			if (rules.isFixedOffset()) // 固定偏移直接返回，不占用缓存
+				return offset;
+			ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));// 不晚于当前时刻的最近一次切换
+			ZoneOffsetTransition next = rules.nextTransition(instant);
+			long from = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+			long to = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+			ZONE_CACHES.put(zone, new ZoneCache(from, to, offset));
+			return offset;
+		}
+
+		/**
+		 * 时区偏移量缓存：[from, to) 区间内的偏移量相同，不可变对象，整体替换
+		 */
+		private static final class ZoneCache {
+			private final long from, to;// 有效区间的秒值
+			private final int offset;// 偏移秒数
+
+			ZoneCache(long from, long to, int offset) {
+				this.from = from;
+				this.to = to;
+				this.offset = offset;
+			}
+		}
+	}
+
+	/**
+	 * 快速格式化的结果缓存：不可变对象，通过 volatile 引用整体替换
+	 */
+	private static final class SecondCache {
+		private final long second;// 秒值
+		private final String zoneId;// 格式化时的默认时区
+		private final String text;// 格式化结果
+
+		SecondCache(long second, String zoneId, String text) {
+			this.second = second;
+			this.zoneId = zoneId;
+			this.text = text;
+		}
 	}
 
 	/**
@@ -41,6 +713,144 @@ public class DateUtil {
 		return DateFormatUtils.format(date, pattern);
 	}
 
+	/**
+	 * 获取默认时区的格式化对象，相同模式返回同一个缓存的实例，可以在多线程中共享。<br />
+	 * 缓存最多保存256个时区和模式的组合，超出后每次调用都创建新实例，动态生成的模式应该自行保存返回的对象。<br />
+	 * 模式字符串使用 DateTimeFormatter 的语法，常用的 yyyy、MM、dd、HH、mm、ss、SSS 等字段与 format(Date, String) 一致。
+	 * 
+	 * @param pattern 格式化模式字符串, not null
+	 * @return 格式化对象
+	 * @throws IllegalArgumentException 模式字符串不合法
+	 */
+	public static Formatter formatter(String pattern) {
+		return formatter(pattern, ZoneId.systemDefault());
+	}
+
+	/**
+	 * 获取指定时区的格式化对象，相同时区和模式返回同一个缓存的实例，可以在多线程中共享，缓存个数限制同
+	 * {@link #formatter(String)}
+	 * 
+	 * @param pattern 格式化模式字符串, not null
+	 * @param zone    时区, not null
+	 * @return 格式化对象
+	 * @throws IllegalArgumentException 模式字符串不合法
+	 */
+	public static Formatter formatter(String pattern, ZoneId zone) {
+		String key = zone.getId() + ' ' + pattern;
+		Formatter formatter = FORMATTERS.get(key);
+		if (formatter != null)
+			return formatter;
+		formatter = new Formatter(pattern, zone);
+		if (FORMATTERS.size() < MAX_FORMATTERS) { // 缓存已满时不再加入，防止任意模式字符串占用内存
+			Formatter previous = FORMATTERS.putIfAbsent(key, formatter);
+			if (previous != null)
+				return previous;
+		}
+		return formatter;
+	}
+
+	/**
+	 * 日期格式化对象：预编译的 DateTimeFormatter，不可变且线程安全，应该作为常量保存并重复使用
+	 */
+	public static final class Formatter {
+		private final String pattern;// 模式字符串
+		private final DateTimeFormatter formatter;// 绑定时区的格式化器
+
+		private Formatter(String pattern, ZoneId zone) {
+			this.pattern = pattern;
+			this.formatter = DateTimeFormatter.ofPattern(pattern).withZone(zone);
+		}
+
+		/**
+		 * @return 模式字符串
+		 */
+		public String getPattern() {
+			return pattern;
+		}
+
+		/**
+		 * @return 绑定时区的 DateTimeFormatter
+		 */
+		public DateTimeFormatter getFormatter() {
+			return formatter;
+		}
+
+		/**
+		 * @param date 待格式化日期, not null
+		 * @return 格式化后的字符串
+		 */
+		public String format(Date date) {
+			return format(date.getTime());
+		}
+
+		/**
+		 * @param millis 待格式化的毫秒值
+		 * @return 格式化后的字符串
+		 */
+		public String format(long millis) {
+			return formatter.format(Instant.ofEpochMilli(millis));
+		}
+
+		/**
+		 * @param temporal 待格式化的时间对象, not null，不含时区的对象使用本身的字段值
+		 * @return 格式化后的字符串
+		 */
+		public String format(TemporalAccessor temporal) {
+			return formatter.format(temporal);
+		}
+
+		/**
+		 * 格式化并直接追加到 out 中
+		 * 
+		 * @param millis 待格式化的毫秒值
+		 * @param out    输出目标, not null
+		 * @throws IOException 输出失败
+		 */
+		public void formatTo(long millis, Appendable out) throws IOException {
+			try {
+				formatter.formatTo(Instant.ofEpochMilli(millis), out);
+			} catch (DateTimeException e) {
+				if (e.getCause() instanceof IOException) // DateTimeFormatter 会把输出异常包装为 DateTimeException
+					throw (IOException) e.getCause();
+				throw e;
+			}
+		}
+
+		/**
+		 * 格式化并直接追加到 out 中
+		 * 
+		 * @param date 待格式化日期, not null
+		 * @param out  输出目标, not null
+		 * @throws IOException 输出失败
+		 */
+		public void formatTo(Date date, Appendable out) throws IOException {
+			formatTo(date.getTime(), out);
+		}
+
+		/**
+		 * 格式化并写入字符数组，结果先写入线程内复用的缓冲区再复制到 dest
+		 * 
+		 * @param millis 待格式化的毫秒值
+		 * @param dest   目标数组, not null
+		 * @param offset 目标数组起始位置
+		 * @return 写入的字符数
+		 * @throws IndexOutOfBoundsException 目标数组空间不足
+		 */
+		public int formatTo(long millis, char[] dest, int offset) {
+			StringBuilder buffer = BUFFER.get();
+			buffer.setLength(0);
+			formatter.formatTo(Instant.ofEpochMilli(millis), buffer);
+			int length = buffer.length();
+			buffer.getChars(0, length, dest, offset);
+			return length;
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getName() + " [pattern=" + pattern + ", zone=" + formatter.getZone() + "]";
+		}
+	}
+
 	/**
 	 * 对输入日期增加指定天数，返回新的Data对象，不改变原对象
 	 * 
@@ -200,8 +1010,21 @@ public class DateUtil {
 	/**
 	 * 转换毫秒值为中文字符串。月一律按30天计算。 <br />
 	 * 使测试程序运行时间的结果可读性更高。
+	 * 
+	 * @see #appendMillis(long, StringBuilder)
 	 */
 	public static String convertMillisToString(long millis) {
+		return appendMillis(millis, new StringBuilder(32)).toString();
+	}
+
+	/**
+	 * 转换毫秒值为中文字符串并追加到 sb，格式与 convertMillisToString 相同，不创建临时字符串
+	 * 
+	 * @param millis 毫秒值
+	 * @param sb     追加的目标, not null
+	 * @return sb
+	 */
+	public static StringBuilder appendMillis(long millis, StringBuilder sb) {
 		int n = 7; // 最高日期单位的标志位
 		long year = 0, month = 0, day = 0, hour = 0, minute = 0;
 
@@ -241,25 +1064,91 @@ public class DateUtil {
 		if (year > 0)
 			n = 1;
 
-		StringBuilder result = new StringBuilder(); // 返回结果字符串
 		// 组织字符串，此处没有break语句，从对应值后面的语句都会执行
 		switch (n) {
 		case 1:
-			result.append(year + "年 ");
+			sb.append(year).append("年 ");
 		case 2:
-			result.append(month + "月 ");
+			sb.append(month).append("月 ");
 		case 3:
-			result.append(day + "日 ");
+			sb.append(day).append("日 ");
 		case 4:
-			result.append(hour + "时 ");
+			sb.append(hour).append("时 ");
 		case 5:
-			result.append(minute + "分 ");
+			sb.append(minute).append("分 ");
 		case 6:
-			result.append(second + "秒 ");
+			sb.append(second).append("秒 ");
 		default:
-			result.append(millisecond + "毫秒");
+			sb.append(millisecond).append("毫秒");
+		}
+		return sb;
+	}
+
+	/**
+	 * 转换时长为与区域无关的 ASCII 字符串并追加到 sb，例如 "1h 0m 5s 120ms"
+	 * 
+	 * @see #appendDuration(long, TimeUnit, TimeUnit, TimeUnit, Appendable)
+	 */
+	public static StringBuilder appendDuration(long duration, TimeUnit unit, TimeUnit largest, TimeUnit smallest,
+			StringBuilder sb) {
+		try {
+			appendDuration(duration, unit, largest, smallest, (Appendable) sb);
+		} catch (IOException e) { // StringBuilder 不会抛出该异常
+			throw new UncheckedIOException(e);
+		}
+		return sb;
+	}
+
+	/**
+	 * 转换时长为与区域无关的 ASCII 字符串并追加到 out，不创建临时对象，适合在高频率的进度输出中使用。<br />
+	 * 从不为0的最大单位开始输出直到 smallest，单位依次为 d、h、m、s、ms、us、ns，以空格分隔，负值以 '-' 开头。<br />
+	 * 例如 System.nanoTime() 的差值可以用 appendDuration(delta, NANOSECONDS, MINUTES, MICROSECONDS, out)
+	 * 输出为 "2m 3s 45ms 6us"。
+	 * 
+	 * @param duration 时长
+	 * @param unit     duration 的单位, not null
+	 * @param largest  输出的最大单位，超出部分累计在该单位上, not null
+	 * @param smallest 输出的最小单位，不足部分舍去, not null
+	 * @param out      追加的目标, not null
+	 * @return out
+	 * @throws IllegalArgumentException largest 小于 smallest
+	 * @throws IOException              追加失败
+	 */
+	public static <A extends Appendable> A appendDuration(long duration, TimeUnit unit, TimeUnit largest,
+			TimeUnit smallest, A out) throws IOException {
+		if (largest.compareTo(smallest) < 0)
+			throw new IllegalArgumentException("最大单位小于最小单位：" + largest + " < " + smallest);
+		long value = smallest.convert(duration, unit); // 超出范围时取 Long.MIN_VALUE 或 Long.MAX_VALUE
+		if (value < 0)
+			out.append('-');
+		else
+			value = -value; // 统一按非正数计算，避免 Long.MIN_VALUE 取反溢出
+		long smallestNanos = smallest.toNanos(1);
+		boolean started = false;
+		for (int i = largest.ordinal(); i >= smallest.ordinal(); i--) {
+			long factor = DURATION_UNITS[i].toNanos(1) / smallestNanos;
+			long part = value / factor;
+			value -= part * factor;
+			if (part == 0 && !started && i > smallest.ordinal())
+				continue; // 省略前面为0的单位
+			if (started)
+				out.append(' ');
+			started = true;
+			appendMagnitude(out, part);
+			out.append(DURATION_SUFFIXES[i]);
 		}
-		return result.toString();
+		return out;
+	}
+
+	/**
+	 * 追加非正数 value 的绝对值
+	 */
+	private static void appendMagnitude(Appendable out, long value) throws IOException {
+		long pow = 1;
+		while (value / pow <= -10)
+			pow *= 10;
+		for (; pow > 0; pow /= 10)
+			out.append((char) ('0' - value / pow % 10));
 	}
 
 }
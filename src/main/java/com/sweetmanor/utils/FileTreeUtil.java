@@ -0,0 +1,1008 @@
+package com.sweetmanor.utils;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * 目录树工具类：使用 DirectoryStream 遍历目录，不在内存中保存全部文件的路径。
+ * 
+ * <pre>
+ * 		<ul>
+ * 			<li>walk 统计目录树，各子目录在专用的 ForkJoinPool 中并行处理，尚未处理的子目录各占用一个任务；
+ * 			<li>search 返回延迟求值的文件流，边遍历边返回结果，并行流按子目录拆分；
+ * 			<li>copy 使用 FileChannel.transferTo 并行拷贝，可以选择跳过没有变化的目标文件；
+ * 			<li>findDuplicates 按大小、首尾块摘要、完整摘要逐级筛选重复文件；
+ * 			<li>不跟随符号链接，指向目录的符号链接按文件处理；
+ * 			<li>无法读取的目录或文件不中断遍历。
+ * 		</ul>
+ * </pre>
+ * 
+ * @version 1.0 2026-10-18
+ * @author ijlhjj
+ */
+public class FileTreeUtil {
+	private static final int MAX_ERRORS = 100;// 保存的最大错误信息条数，超出部分只计数
+	private static final int SPLIT_PREFETCH = 16;// 拆分并行流时为发现子目录最多预读的次数
+	private static final int SPLIT_PREFETCH_ENTRIES = 256;// 每次预读最多读取的目录项数，限制 ready 队列的大小
+	private static final int COPY_BATCH = 32;// 拆分拷贝任务时每个任务处理的文件数
+	private static final int PARTIAL_BLOCK = 4096;// 查找重复文件时部分摘要读取的首尾块大小
+	private static final int HASH_THRESHOLD = 8;// 每个摘要任务直接计算的最大文件数
+
+	/**
+	 * 统计目录下的文件数、目录数和文件总字节数（递归所有子目录），使用CPU核数的线程并行遍历。<br />
+	 * 遍历在每次调用创建的专用线程池中进行，不占用 ForkJoinPool.commonPool()，网络文件系统上的阻塞IO不影响其它并行任务。
+	 * 
+	 * @param dir 目录
+	 * @return 统计结果，不包括 dir 本身
+	 * @throws IllegalArgumentException dir 不是目录
+	 * @see #walk(File, int)
+	 */
+	public static TreeStats walk(File dir) {
+		return walk(dir, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * 统计目录下的文件数、目录数和文件总字节数（递归所有子目录），使用指定线程数并行遍历。<br />
+	 * 网络文件系统上的遍历主要等待IO，线程数可以大于CPU核数。
+	 * <p>
+	 * 每个子目录创建一个遍历任务，已发现但尚未处理的子目录都保存在任务队列中，内存占用与目录树的宽度成正比，
+	 * 最坏情况下与子目录总数成正比，不是常量；文件不创建任务，也不保存路径。
+	 * 
+	 * @param dir         目录
+	 * @param parallelism 并行遍历的线程数
+	 * @return 统计结果，不包括 dir 本身
+	 * @throws IllegalArgumentException dir 不是目录或线程数小于1
+	 */
+	public static TreeStats walk(File dir, int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("线程数必须大于0：" + parallelism);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return walk(dir, pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * 在指定线程池中遍历目录
+	 */
+	private static TreeStats walk(File dir, ForkJoinPool pool) {
+		if (!dir.isDirectory())
+			throw new IllegalArgumentException("不是目录：" + dir);
+		long start = System.nanoTime();
+		TreeStats stats = new TreeStats();
+		pool.invoke(new WalkTask(stats, dir.toPath()));
+		stats.nanos = System.nanoTime() - start;
+		return stats;
+	}
+
+	/**
+	 * 查找目录下的文件（递归子目录），返回延迟求值的流：遍历过程中逐个返回结果，短路操作（findFirst、limit 等）结束后不再继续遍历。
+	 * <p>
+	 * 流持有打开的目录，使用完成后需要关闭，建议使用 try-with-resources。无法读取的目录直接跳过。
+	 * 
+	 * @param dir      查找的目录
+	 * @param maxDepth 最大深度，1只查找 dir 下的文件，Integer.MAX_VALUE 不限制深度
+	 * @param matcher  文件过滤条件，只用于非目录项，为null时返回全部文件，见 {@link #extensionMatcher(String...)} 等方法
+	 * @param parallel 是否返回并行流，并行流按子目录拆分
+	 * @return 文件路径流，以 dir 为前缀，顺序不确定
+	 * @throws IllegalArgumentException dir 不是目录或最大深度小于1
+	 */
+	public static Stream<Path> search(File dir, int maxDepth, PathMatcher matcher, boolean parallel) {
+		if (!dir.isDirectory())
+			throw new IllegalArgumentException("不是目录：" + dir);
+		if (maxDepth < 1)
+			throw new IllegalArgumentException("最大深度必须大于0：" + maxDepth);
+		Set<DirectoryStream<Path>> opened = ConcurrentHashMap.newKeySet();
+		SearchSpliterator spliterator = new SearchSpliterator(matcher, maxDepth, opened);
+		spliterator.pending.add(new PendingDir(dir.toPath(), 0));
+		return StreamSupport.stream(spliterator, parallel).onClose(() -> {
+			for (DirectoryStream<Path> stream : opened)
+				closeQuietly(stream);
+			opened.clear();
+		});
+	}
+
+	/**
+	 * 按扩展名匹配文件，区分大小写，与 {@link FileUtil#getFiles(File, String[], boolean)} 一致。<br />
+	 * 直接比较路径字符串的结尾，不为每个文件创建文件名或扩展名字符串。
+	 * 
+	 * @param extensions 扩展名，不包括 '.'，例如 "java"
+	 */
+	public static PathMatcher extensionMatcher(String... extensions) {
+		String[] suffixes = new String[extensions.length];
+		for (int i = 0; i < extensions.length; i++)
+			suffixes[i] = "." + extensions[i];
+		return path -> {
+			String name = path.toString();// Path 内部缓存了字符串形式
+			int length = name.length();
+			for (String suffix : suffixes)
+				if (name.regionMatches(length - suffix.length(), suffix, 0, suffix.length()))
+					return true;
+			return false;
+		};
+	}
+
+	/**
+	 * 按 glob 模式匹配文件名（不包括目录部分），例如 "*.{java,xml}"
+	 */
+	public static PathMatcher globMatcher(String glob) {
+		PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+		return path -> matcher.matches(path.getFileName());
+	}
+
+	/**
+	 * 按正则表达式匹配文件名（不包括目录部分），要求整个文件名匹配
+	 */
+	public static PathMatcher regexMatcher(String regex) {
+		Pattern pattern = Pattern.compile(regex);
+		return path -> pattern.matcher(path.getFileName().toString()).matches();
+	}
+
+	/**
+	 * 拷贝文件或目录，已存在的目标文件强制覆盖
+	 * 
+	 * @see #copy(File, File, int, boolean, String, Consumer)
+	 */
+	public static CopyStats copy(File source, File target, int parallelism) throws IOException {
+		return copy(source, target, parallelism, false, null, null);
+	}
+
+	/**
+	 * 拷贝文件或目录
+	 * 
+	 * @param skipUnchanged 为true时目标文件大小和修改时间与源文件相同则跳过，为false时强制覆盖
+	 * @see #copy(File, File, int, boolean, String, Consumer)
+	 */
+	public static CopyStats copy(File source, File target, int parallelism, boolean skipUnchanged) throws IOException {
+		return copy(source, target, parallelism, skipUnchanged, null, null);
+	}
+
+	/**
+	 * 拷贝文件或目录：使用 FileChannel.transferTo 在内核中直接传输数据，目录中的文件在指定线程数的 ForkJoinPool 中并行拷贝。
+	 * 
+	 * <pre>
+	 * 		<ul>
+	 * 			<li>源为目录时递归拷贝到目标目录中（目标目录不存在时创建），源为文件、目标为已存在的目录时拷贝到该目录下；
+	 * 			<li>拷贝后目标文件的修改时间设置为源文件的修改时间；
+	 * 			<li>不跟随指向目录的符号链接，指向文件的符号链接按文件内容拷贝，其它特殊文件不拷贝，没有拷贝的项记录在 {@link CopyStats#getIgnored()} 中；
+	 * 			<li>单个文件拷贝失败记录为错误，不中断其它文件的拷贝。
+	 * 		</ul>
+	 * </pre>
+	 * 
+	 * @param source          源文件或目录
+	 * @param target          目标文件或目录
+	 * @param parallelism     并行拷贝的线程数
+	 * @param skipUnchanged   是否跳过没有变化的目标文件，为false时已存在的目标文件强制覆盖
+	 * @param digestAlgorithm 只在跳过没有变化的文件时使用：为null时目标文件大小和修改时间都与源文件相同则跳过；否则大小相同且摘要相同时跳过，例如
+	 *                        {@link SecurityUtil#MD5}
+	 * @param progress        进度回调，每处理完一个文件（拷贝、跳过或失败）在工作线程中调用一次，可以为null
+	 * @return 拷贝结果
+	 * @throws IOException              源不存在、源与目标是同一个文件或目录、将目录拷贝到文件或拷贝到自身的子目录中
+	 * @throws IllegalArgumentException 线程数小于1或不支持的摘要算法
+	 */
+	public static CopyStats copy(File source, File target, int parallelism, boolean skipUnchanged,
+			String digestAlgorithm, Consumer<CopyStats> progress) throws IOException {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("线程数必须大于0：" + parallelism);
+		if (digestAlgorithm != null)
+			SecurityUtil.messageDigest(digestAlgorithm); // 提前检查摘要算法
+		if (!source.exists())
+			throw new FileNotFoundException("源文件不存在：" + source);
+		if (source.isDirectory() && target.isFile())
+			throw new IOException("不能将目录拷贝到文件！");
+		if (source.isDirectory()
+				&& (target.getCanonicalPath() + File.separator).startsWith(source.getCanonicalPath() + File.separator)
+				&& !target.getCanonicalFile().equals(source.getCanonicalFile()))
+			throw new IOException("不能将目录拷贝到其子目录中：" + target);
+		if (source.isFile() && target.isDirectory())
+			target = new File(target, source.getName());
+		if (target.exists() && Files.isSameFile(source.toPath(), target.toPath())) // 覆盖自身会先截断源文件
+			throw new IOException("源文件和目标文件相同：" + source + " -> " + target);
+
+		CopyStats stats = new CopyStats(skipUnchanged, digestAlgorithm, progress);
+		if (source.isDirectory()) {
+			Files.createDirectories(target.toPath());
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try {
+				pool.invoke(new CopyDirTask(stats, source.toPath(), target.toPath()));
+			} finally {
+				pool.shutdown();
+			}
+		} else {
+			stats.copy(source.toPath(), target.toPath());
+		}
+		stats.nanos = System.nanoTime() - stats.start;
+		return stats;
+	}
+
+	/**
+	 * 使用 FileChannel.transferTo 拷贝文件内容，目标文件已存在时覆盖
+	 * 
+	 * @return 拷贝的字节数
+	 */
+	private static long transfer(Path source, Path target) throws IOException {
+		try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+			long size = in.size();
+			long position = 0;
+			while (position < size) {
+				long count = in.transferTo(position, size - position, out);
+				if (count <= 0) // 拷贝过程中源文件被截断
+					break;
+				position += count;
+			}
+			return position;
+		}
+	}
+
+	/**
+	 * 查找目录下（递归子目录）内容相同的文件，逐级缩小候选范围以减少读取量：
+	 * 
+	 * <pre>
+	 * 		<ol>
+	 * 			<li>按文件大小分组，大小唯一的文件直接排除；
+	 * 			<li>计算首尾各 4KB 的摘要再分组，不超过 8KB 的文件此时已比较了全部内容；
+	 * 			<li>仍然相同的文件计算完整摘要分组。
+	 * 		</ol>
+	 * </pre>
+	 * 
+	 * 摘要在指定线程数的 ForkJoinPool 中并行计算。只比较普通文件，符号链接、空文件和读取失败的文件不参与比较；
+	 * 同一文件的多个硬链接（fileKey 相同）不占用额外空间，只保留遍历时遇到的第一个路径参与比较。
+	 * 
+	 * @param dir         查找的目录
+	 * @param algorithm   摘要算法，见 {@link SecurityUtil#MD5} 等常量
+	 * @param parallelism 并行计算摘要的线程数
+	 * @return 重复文件分组，每组至少两个文件、按路径排序，各组按文件大小从大到小排列
+	 * @throws IllegalArgumentException dir 不是目录、线程数小于1或不支持的摘要算法
+	 */
+	public static Stream<List<Path>> findDuplicates(File dir, String algorithm, int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("线程数必须大于0：" + parallelism);
+		SecurityUtil.messageDigest(algorithm); // 提前检查摘要算法
+
+		Map<Long, List<Path>> bySize = new HashMap<>();
+		Set<Object> fileKeys = new HashSet<>();// 已遇到的文件标识，用于排除硬链接
+		try (Stream<Path> files = search(dir, Integer.MAX_VALUE, null, false)) {
+			files.forEach(path -> {
+				BasicFileAttributes attributes;
+				try {
+					attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+				} catch (IOException e) { // 读取失败的文件不参与比较
+					return;
+				}
+				if (!attributes.isRegularFile() || attributes.size() == 0)
+					return;
+				Object fileKey = attributes.fileKey();// 不支持的文件系统为null
+				if (fileKey != null && !fileKeys.add(fileKey)) // 已遇到的文件的另一个硬链接
+					return;
+				bySize.computeIfAbsent(attributes.size(), key -> new ArrayList<>(2)).add(path);
+			});
+		}
+		List<SizeGroup> groups = new ArrayList<>();
+		bySize.forEach((size, paths) -> {
+			if (paths.size() > 1)
+				groups.add(new SizeGroup(size, paths));
+		});
+
+		List<SizeGroup> duplicates = new ArrayList<>();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			List<SizeGroup> partial = refine(groups, algorithm, true, pool);
+			List<SizeGroup> large = new ArrayList<>();
+			for (SizeGroup group : partial)
+				(group.size > 2 * PARTIAL_BLOCK ? large : duplicates).add(group);
+			duplicates.addAll(refine(large, algorithm, false, pool));
+		} finally {
+			pool.shutdown();
+		}
+
+		for (SizeGroup group : duplicates)
+			Collections.sort(group.paths);
+		duplicates.sort(Comparator.comparingLong((SizeGroup group) -> group.size).reversed()
+				.thenComparing(group -> group.paths.get(0)));
+		return duplicates.stream().map(group -> Collections.unmodifiableList(group.paths));
+	}
+
+	/**
+	 * 并行计算各组文件的摘要，将每组按摘要拆分，只保留至少两个文件的组
+	 * 
+	 * @param partial 是否只计算首尾块的摘要
+	 */
+	private static List<SizeGroup> refine(List<SizeGroup> groups, String algorithm, boolean partial,
+			ForkJoinPool pool) {
+		List<Path> files = new ArrayList<>();
+		for (SizeGroup group : groups)
+			files.addAll(group.paths);
+		String[] keys = new String[files.size()];
+		pool.invoke(new HashTask(files, keys, algorithm, partial, 0, keys.length));
+
+		List<SizeGroup> result = new ArrayList<>();
+		int i = 0;
+		for (SizeGroup group : groups) {
+			Map<String, List<Path>> byKey = new HashMap<>();
+			for (Path path : group.paths) {
+				String key = keys[i++];
+				if (key != null)
+					byKey.computeIfAbsent(key, k -> new ArrayList<>(2)).add(path);
+			}
+			for (List<Path> paths : byKey.values())
+				if (paths.size() > 1)
+					result.add(new SizeGroup(group.size, paths));
+		}
+		return result;
+	}
+
+	/**
+	 * 计算文件首尾各 PARTIAL_BLOCK 字节的摘要，文件不超过两块时计算全部内容
+	 */
+	private static String partialDigest(Path path, String algorithm) throws IOException {
+		MessageDigest md = SecurityUtil.threadDigest(algorithm);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size <= 2 * PARTIAL_BLOCK) {
+				SecurityUtil.update(md, channel, 0, size);
+			} else {
+				SecurityUtil.update(md, channel, 0, PARTIAL_BLOCK);
+				SecurityUtil.update(md, channel, size - PARTIAL_BLOCK, PARTIAL_BLOCK);
+			}
+		}
+		return Hex.encodeHexString(md.digest());
+	}
+
+	/**
+	 * 关闭目录流，忽略关闭错误
+	 */
+	private static void closeQuietly(DirectoryStream<Path> stream) {
+		try {
+			stream.close();
+		} catch (IOException e) { // 只读的目录流关闭失败不影响结果
+		}
+	}
+
+	/**
+	 * 等待遍历的目录及其深度
+	 */
+	private static class PendingDir {
+		final Path path;
+		final int depth;
+
+		PendingDir(Path path, int depth) {
+			this.path = path;
+			this.depth = depth;
+		}
+	}
+
+	/**
+	 * 延迟遍历目录树的 Spliterator：每次最多打开一个目录，子目录加入待遍历队列；拆分时交出队列前半部分（层次较浅的目录）
+	 */
+	private static class SearchSpliterator implements Spliterator<Path> {
+		private final PathMatcher matcher;
+		private final int maxDepth;
+		private final Set<DirectoryStream<Path>> opened;// 同一次查找中所有打开的目录流，关闭查找流时统一关闭
+		final Deque<PendingDir> pending = new ArrayDeque<>();// 待遍历的目录
+		private final Deque<Path> ready = new ArrayDeque<>();// 拆分时预读到的匹配文件
+		private DirectoryStream<Path> stream;// 当前目录
+		private Iterator<Path> iterator;
+		private int depth;// 当前目录中各项的深度
+
+		SearchSpliterator(PathMatcher matcher, int maxDepth, Set<DirectoryStream<Path>> opened) {
+			this.matcher = matcher;
+			this.maxDepth = maxDepth;
+			this.opened = opened;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Path> action) {
+			Path path = ready.poll();
+			if (path == null)
+				path = next();
+			if (path == null)
+				return false;
+			action.accept(path);
+			return true;
+		}
+
+		/**
+		 * 返回下一个匹配的文件，遍历结束时返回null
+		 */
+		private Path next() {
+			while (true) {
+				if (iterator == null) {
+					PendingDir dir = pending.pollLast();// 深度优先，待遍历队列保持较小
+					if (dir == null)
+						return null;
+					open(dir);
+					continue;
+				}
+				Path entry;
+				try {
+					if (!iterator.hasNext()) {
+						closeCurrent();
+						continue;
+					}
+					entry = iterator.next();
+				} catch (DirectoryIteratorException e) { // 读取过程中出错，跳过当前目录的剩余部分
+					closeCurrent();
+					continue;
+				}
+				if (accept(entry))
+					return entry;
+			}
+		}
+
+		/**
+		 * 处理目录中的一项：子目录加入待遍历队列，文件返回是否匹配
+		 */
+		private boolean accept(Path entry) {
+			boolean matches = matcher == null || matcher.matches(entry);
+			if (!matches && depth >= maxDepth) // 不再进入子目录，不匹配时不需要读取属性
+				return false;
+			BasicFileAttributes attributes;
+			try {
+				attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+			} catch (IOException e) {
+				return false;
+			}
+			if (attributes.isDirectory()) {
+				if (depth < maxDepth)
+					pending.add(new PendingDir(entry, depth + 1));
+				return false;
+			}
+			return matches;
+		}
+
+		private void open(PendingDir dir) {
+			try {
+				stream = Files.newDirectoryStream(dir.path);
+			} catch (IOException e) { // 无法读取的目录直接跳过
+				return;
+			}
+			opened.add(stream);
+			iterator = stream.iterator();
+			depth = dir.depth + 1;
+		}
+
+		private void closeCurrent() {
+			opened.remove(stream);
+			closeQuietly(stream);
+			stream = null;
+			iterator = null;
+		}
+
+		/**
+		 * 预读当前目录，匹配的文件放入 ready，子目录加入待遍历队列；发现子目录或读取 SPLIT_PREFETCH_ENTRIES 项后停止，
+		 * 避免将很大的扁平目录全部读入内存，目录读完时关闭
+		 */
+		private void drainCurrent() {
+			int found = pending.size();
+			try {
+				for (int i = 0; i < SPLIT_PREFETCH_ENTRIES; i++) {
+					if (!iterator.hasNext())
+						break;
+					Path entry = iterator.next();
+					if (accept(entry))
+						ready.add(entry);
+					if (pending.size() > found) // 已发现子目录，可以拆分
+						return;
+				}
+				if (iterator.hasNext())
+					return;
+			} catch (DirectoryIteratorException e) {
+			}
+			closeCurrent();
+		}
+
+		@Override
+		public Spliterator<Path> trySplit() {
+			// 待遍历目录不足时预读，尽早发现子目录以便拆分，最多预读 SPLIT_PREFETCH * SPLIT_PREFETCH_ENTRIES 项
+			for (int i = 0; i < SPLIT_PREFETCH && pending.size() < 2; i++) {
+				if (iterator == null) {
+					PendingDir dir = pending.pollFirst();
+					if (dir == null)
+						break;
+					open(dir);
+					if (iterator == null)
+						continue;
+				}
+				drainCurrent();
+			}
+			if (pending.isEmpty() || (pending.size() == 1 && iterator == null && ready.isEmpty()))
+				return null;
+
+			SearchSpliterator split = new SearchSpliterator(matcher, maxDepth, opened);
+			for (int n = (pending.size() + 1) / 2; n > 0; n--)
+				split.pending.add(pending.pollFirst());
+			return split;
+		}
+
+		@Override
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public int characteristics() {
+			return DISTINCT | NONNULL;
+		}
+	}
+
+	/**
+	 * 遍历一个目录的任务：统计直接包含的文件，每个子目录创建一个新任务
+	 */
+	private static class WalkTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final TreeStats stats;
+		private final Path dir;
+
+		WalkTask(TreeStats stats, Path dir) {
+			this.stats = stats;
+			this.dir = dir;
+		}
+
+		@Override
+		protected void compute() {
+			List<WalkTask> subtasks = null;
+			long files = 0, dirs = 0, bytes = 0;
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+				for (Path entry : stream) {
+					BasicFileAttributes attributes;
+					try {
+						attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+					} catch (IOException e) {
+						stats.error(entry, e);
+						continue;
+					}
+					if (attributes.isDirectory()) {
+						dirs++;
+						WalkTask task = new WalkTask(stats, entry);
+						task.fork();
+						if (subtasks == null)
+							subtasks = new ArrayList<>();
+						subtasks.add(task);
+					} else {
+						files++;
+						bytes += attributes.size();
+					}
+				}
+			} catch (IOException e) {
+				stats.error(dir, e);
+			} catch (DirectoryIteratorException e) { // 遍历过程中的读取错误
+				stats.error(dir, e.getCause());
+			}
+			stats.files.add(files);
+			stats.dirs.add(dirs);
+			stats.bytes.add(bytes);
+
+			if (subtasks != null)
+				for (WalkTask task : subtasks)
+					task.join();
+		}
+	}
+
+	/**
+	 * 拷贝一个目录的任务：每个子目录创建一个新任务，文件按 COPY_BATCH 分批交给 CopyFilesTask
+	 */
+	private static class CopyDirTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final CopyStats stats;
+		private final Path source;
+		private final Path target;
+
+		CopyDirTask(CopyStats stats, Path source, Path target) {
+			this.stats = stats;
+			this.source = source;
+			this.target = target;
+		}
+
+		@Override
+		protected void compute() {
+			List<RecursiveAction> subtasks = new ArrayList<>();
+			List<Path> batch = new ArrayList<>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(source)) {
+				for (Path entry : stream) {
+					BasicFileAttributes attributes;
+					try {
+						attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+					} catch (IOException e) {
+						stats.error(entry, e);
+						continue;
+					}
+					if (attributes.isDirectory()) {
+						Path dir = target.resolve(entry.getFileName());
+						try {
+							Files.createDirectories(dir);
+						} catch (IOException e) {
+							stats.error(dir, e);
+							continue;
+						}
+						subtasks.add(new CopyDirTask(stats, entry, dir));
+						subtasks.get(subtasks.size() - 1).fork();
+					} else if (attributes.isRegularFile() || Files.isRegularFile(entry)) { // 指向文件的符号链接
+						batch.add(entry);
+						if (batch.size() == COPY_BATCH) {
+							subtasks.add(new CopyFilesTask(stats, batch, target));
+							subtasks.get(subtasks.size() - 1).fork();
+							batch = new ArrayList<>();
+						}
+					} else { // 指向目录或无效的符号链接、设备文件等
+						stats.ignore(entry, attributes.isSymbolicLink() ? "符号链接未跟随" : "不是普通文件");
+					}
+				}
+			} catch (IOException e) {
+				stats.error(source, e);
+			} catch (DirectoryIteratorException e) {
+				stats.error(source, e.getCause());
+			}
+			new CopyFilesTask(stats, batch, target).compute();// 最后一批在当前线程中拷贝
+
+			for (RecursiveAction task : subtasks)
+				task.join();
+		}
+	}
+
+	/**
+	 * 拷贝一批文件到目标目录的任务
+	 */
+	private static class CopyFilesTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final CopyStats stats;
+		private final List<Path> files;
+		private final Path target;
+
+		CopyFilesTask(CopyStats stats, List<Path> files, Path target) {
+			this.stats = stats;
+			this.files = files;
+			this.target = target;
+		}
+
+		@Override
+		protected void compute() {
+			for (Path file : files)
+				stats.copy(file, target.resolve(file.getFileName()));
+		}
+	}
+
+	/**
+	 * 大小相同的一组文件
+	 */
+	private static class SizeGroup {
+		final long size;
+		final List<Path> paths;
+
+		SizeGroup(long size, List<Path> paths) {
+			this.size = size;
+			this.paths = paths;
+		}
+	}
+
+	/**
+	 * 按文件下标范围拆分的摘要计算任务，读取失败的文件摘要为null
+	 */
+	private static class HashTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final List<Path> files;
+		private final String[] keys;
+		private final String algorithm;
+		private final boolean partial;
+		private final int from;
+		private final int to;
+
+		HashTask(List<Path> files, String[] keys, String algorithm, boolean partial, int from, int to) {
+			this.files = files;
+			this.keys = keys;
+			this.algorithm = algorithm;
+			this.partial = partial;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= HASH_THRESHOLD) {
+				for (int i = from; i < to; i++) {
+					Path path = files.get(i);
+					try {
+						keys[i] = partial ? partialDigest(path, algorithm)
+								: SecurityUtil.digest(path.toFile(), algorithm).getHex();
+					} catch (IOException e) { // 读取失败的文件不参与比较
+					}
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new HashTask(files, keys, algorithm, partial, from, mid),
+					new HashTask(files, keys, algorithm, partial, mid, to));
+		}
+	}
+
+	/**
+	 * 目录树统计结果
+	 */
+	public static final class TreeStats {
+		private final LongAdder files = new LongAdder();
+		private final LongAdder dirs = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final ErrorLog errors = new ErrorLog();
+		private long nanos;
+
+		TreeStats() {
+		}
+
+		/**
+		 * 记录错误，不中断遍历
+		 */
+		void error(Path path, IOException e) {
+			errors.add(path, e);
+		}
+
+		/**
+		 * 文件数（包括符号链接等非目录项）
+		 */
+		public long getFiles() {
+			return files.sum();
+		}
+
+		/**
+		 * 目录数，不包括遍历的根目录
+		 */
+		public long getDirs() {
+			return dirs.sum();
+		}
+
+		/**
+		 * 文件总字节数
+		 */
+		public long getBytes() {
+			return bytes.sum();
+		}
+
+		/**
+		 * 错误数
+		 */
+		public long getErrorCount() {
+			return errors.count();
+		}
+
+		/**
+		 * 错误信息，最多保存前100条
+		 */
+		public List<String> getErrors() {
+			return errors.list();
+		}
+
+		/**
+		 * 遍历耗时，单位纳秒
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		@Override
+		public String toString() {
+			return "files=" + getFiles() + " dirs=" + getDirs() + " bytes=" + getBytes() + " errors="
+					+ getErrorCount() + " " + DateUtil.convertMillisToString(nanos / 1_000_000);
+		}
+	}
+
+	/**
+	 * 拷贝结果，拷贝过程中可以读取当前进度
+	 */
+	public static final class CopyStats {
+		private final boolean skipUnchanged;
+		private final String digestAlgorithm;
+		private final Consumer<CopyStats> progress;
+		private final LongAdder copied = new LongAdder();
+		private final LongAdder skipped = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final ErrorLog errors = new ErrorLog();
+		private final ErrorLog ignored = new ErrorLog();
+		private final long start = System.nanoTime();
+		private volatile long nanos = -1;// 拷贝完成前为-1
+
+		CopyStats(boolean skipUnchanged, String digestAlgorithm, Consumer<CopyStats> progress) {
+			this.skipUnchanged = skipUnchanged;
+			this.digestAlgorithm = digestAlgorithm;
+			this.progress = progress;
+		}
+
+		void error(Path path, IOException e) {
+			errors.add(path, e);
+		}
+
+		/**
+		 * 记录没有拷贝的目录项
+		 */
+		void ignore(Path path, String reason) {
+			ignored.add(path, reason);
+		}
+
+		/**
+		 * 拷贝一个文件，指定跳过没有变化的文件时比较目标文件
+		 */
+		void copy(Path source, Path target) {
+			try {
+				BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+				if (Files.exists(target) && Files.isSameFile(source, target)) // 硬链接或符号链接指向源文件
+					throw new IOException("源文件和目标文件相同：" + target);
+				if (skipUnchanged && unchanged(source, target, attributes)) {
+					skipped.increment();
+				} else {
+					long count = transfer(source, target);
+					Files.setLastModifiedTime(target, attributes.lastModifiedTime());
+					copied.increment();
+					bytes.add(count);
+				}
+			} catch (IOException e) {
+				errors.add(source, e);
+			}
+			if (progress != null)
+				progress.accept(this);
+		}
+
+		/**
+		 * 目标文件是否与源文件相同：大小相同，并且修改时间相同（未指定摘要算法时）或摘要相同
+		 */
+		private boolean unchanged(Path source, Path target, BasicFileAttributes attributes) throws IOException {
+			BasicFileAttributes existing;
+			try {
+				existing = Files.readAttributes(target, BasicFileAttributes.class);
+			} catch (NoSuchFileException e) {
+				return false;
+			}
+			if (!existing.isRegularFile() || existing.size() != attributes.size())
+				return false;
+			if (digestAlgorithm == null)
+				return existing.lastModifiedTime().toMillis() == attributes.lastModifiedTime().toMillis();
+			return SecurityUtil.digest(source.toFile(), digestAlgorithm).getHex()
+					.equals(SecurityUtil.digest(target.toFile(), digestAlgorithm).getHex());
+		}
+
+		/**
+		 * 已拷贝的文件数
+		 */
+		public long getCopied() {
+			return copied.sum();
+		}
+
+		/**
+		 * 目标没有变化而跳过的文件数
+		 */
+		public long getSkipped() {
+			return skipped.sum();
+		}
+
+		/**
+		 * 已拷贝的字节数，不包括跳过的文件
+		 */
+		public long getBytes() {
+			return bytes.sum();
+		}
+
+		/**
+		 * 错误数
+		 */
+		public long getErrorCount() {
+			return errors.count();
+		}
+
+		/**
+		 * 错误信息，最多保存前100条
+		 */
+		public List<String> getErrors() {
+			return errors.list();
+		}
+
+		/**
+		 * 没有拷贝的目录项数：指向目录的符号链接、无效的符号链接和设备文件等特殊文件
+		 */
+		public long getIgnored() {
+			return ignored.count();
+		}
+
+		/**
+		 * 没有拷贝的目录项及原因，最多保存前100条
+		 */
+		public List<String> getIgnoredEntries() {
+			return ignored.list();
+		}
+
+		/**
+		 * 是否已经拷贝完成
+		 */
+		public boolean isDone() {
+			return nanos >= 0;
+		}
+
+		/**
+		 * 拷贝耗时，拷贝过程中为已用时间，单位纳秒
+		 */
+		public long getNanos() {
+			long elapsed = nanos;
+			return elapsed >= 0 ? elapsed : System.nanoTime() - start;
+		}
+
+		/**
+		 * 拷贝吞吐量，单位字节/秒
+		 */
+		public double getThroughput() {
+			long elapsed = getNanos();
+			return elapsed == 0 ? 0 : getBytes() * 1e9 / elapsed;
+		}
+
+		@Override
+		public String toString() {
+			return "copied=" + getCopied() + " skipped=" + getSkipped() + " ignored=" + getIgnored() + " bytes="
+					+ getBytes() + " errors=" + getErrorCount() + " "
+					+ DateUtil.convertMillisToString(getNanos() / 1_000_000);
+		}
+	}
+
+	/**
+	 * 线程安全的路径记录：全部计数，最多保存 MAX_ERRORS 条信息
+	 */
+	private static final class ErrorLog {
+		private final LongAdder count = new LongAdder();
+		private final List<String> messages = new ArrayList<>();
+
+		void add(Path path, IOException e) {
+			add(path, e.toString());
+		}
+
+		void add(Path path, String message) {
+			count.increment();
+			synchronized (messages) {
+				if (messages.size() < MAX_ERRORS)
+					messages.add(path + ": " + message);
+			}
+		}
+
+		long count() {
+			return count.sum();
+		}
+
+		List<String> list() {
+			synchronized (messages) {
+				return Collections.unmodifiableList(new ArrayList<>(messages));
+			}
+		}
+	}
+
+}
@@ -2,12 +2,13 @@ package com.sweetmanor.utils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.filefilter.DirectoryFileFilter;
-import org.apache.commons.io.filefilter.TrueFileFilter;
 
 /**
  * 文件工具类：调用 commons-io 实现的方法更多的是一个使用示例，具体使用时尽量直接用原方法，这样可以减少封装不好而引入的不必要错误。
@@ -36,26 +37,26 @@ public class FileUtil {
 
 	/**
 	 * 统计文件（夹）包含文件个数（递归所有子目录）
+	 * <p>
+	 * 使用 {@link FileTreeUtil#walk(File)} 并行遍历，不在内存中保存文件列表；不跟随符号链接，无法读取的子目录不计入。
 	 */
 	public static int countFiles(File dir) {
-		Collection<File> files = FileUtils.listFiles(dir, null, true);
-		return files.size();
+		return Math.toIntExact(FileTreeUtil.walk(dir).getFiles());
 	}
 
 	/**
-	 * 统计文件（夹）包含目录个数（递归所有子目录）
+	 * 统计文件（夹）包含目录个数（递归所有子目录），不包括当前目录，与Windows的统计结果保持一致
 	 */
 	public static int countDirs(File dir) {
-		Collection<File> files = FileUtils.listFilesAndDirs(dir, DirectoryFileFilter.INSTANCE, TrueFileFilter.INSTANCE);
-		return files.size() - 1;// 遍历结果包含了当前目录，此处减1与Windows的统计结果保持一致
+		return Math.toIntExact(FileTreeUtil.walk(dir).getDirs());
 	}
 
 	/**
-	 * 统计文件（夹）包含目录和文件个数（递归所有子目录）
+	 * 统计文件（夹）包含目录和文件个数（递归所有子目录），不包括当前目录，与Windows的统计结果保持一致
 	 */
 	public static int countDirAndFiles(File dir) {
-		Collection<File> files = FileUtils.listFilesAndDirs(dir, TrueFileFilter.INSTANCE, TrueFileFilter.INSTANCE);
-		return files.size() - 1;// 遍历结果包含了当前目录，此处减1与Windows的统计结果保持一致
+		FileTreeUtil.TreeStats stats = FileTreeUtil.walk(dir);
+		return Math.toIntExact(stats.getFiles() + stats.getDirs());
 	}
 
 	/**
@@ -65,6 +66,7 @@ public class FileUtil {
 	 * @param extensions 扩展名数组
 	 * @param recursive  是否递归遍历子目录，True遍历子目录，False只获取当前目录（不包括子目录）
 	 * @return 返回结果文件数组
+	 * @see FileTreeUtil#search(File, int, java.nio.file.PathMatcher, boolean) 延迟求值的查找，不需要等待遍历完成
 	 */
 	public static File[] getFiles(File dir, String[] extensions, boolean recursive) {
 		Collection<File> files = FileUtils.listFiles(dir, extensions, recursive); // 获取指定扩展名文件集合
@@ -83,22 +85,29 @@ public class FileUtil {
 	}
 
 	/**
-	 * 文件拷贝
+	 * 文件拷贝：使用 {@link FileTreeUtil#copy(File, File, int)} 并行拷贝，线程数为CPU核数
 	 * <p>
-	 * <strong>注意：</strong> 不能将目录拷贝到文件；拷贝过程将强制覆盖。
+	 * <strong>注意：</strong> 不能将目录拷贝到文件；拷贝过程将强制覆盖，需要跳过没有变化的文件时使用
+	 * {@link FileTreeUtil#copy(File, File, int, boolean)}。
 	 * 
-	 * @throws IOException
+	 * @throws IOException 源不存在、将目录拷贝到文件或有文件拷贝失败
 	 */
 	public static void copyFile(File source, File target) throws IOException {
-		if (source.isDirectory() && target.isFile())
-			throw new IOException("不能将目录拷贝到文件！");
+		FileTreeUtil.CopyStats stats = FileTreeUtil.copy(source, target, Runtime.getRuntime().availableProcessors());
+		if (stats.getErrorCount() > 0)
+			throw new IOException("拷贝失败 " + stats.getErrorCount() + " 处，第一个错误：" + stats.getErrors().get(0));
+	}
 
-		if (source.isDirectory() && target.isDirectory())
-			FileUtils.copyDirectory(source, target);
-		else if (source.isFile() && target.isDirectory())
-			FileUtils.copyFileToDirectory(source, target);
-		else if (source.isFile() && target.isFile())
-			FileUtils.copyFile(source, target);
+	/**
+	 * 查找目录下（递归子目录）内容相同的文件，按大小、首尾块摘要、完整摘要逐级筛选，摘要使用CPU核数的线程并行计算
+	 * 
+	 * @param dir       查找的目录
+	 * @param algorithm 摘要算法，见 {@link SecurityUtil#MD5} 等常量
+	 * @return 重复文件分组，每组至少两个文件
+	 * @see FileTreeUtil#findDuplicates(File, String, int)
+	 */
+	public static Stream<List<Path>> findDuplicates(File dir, String algorithm) {
+		return FileTreeUtil.findDuplicates(dir, algorithm, Runtime.getRuntime().availableProcessors());
 	}
 
 }
@@ -0,0 +1,213 @@
+package com.sweetmanor.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * 身份证号码文件处理工具类：使用内存映射读取CSV文件，直接在映射的字节上定位并校验身份证号码列，不创建行字符串。
+ * 
+ * <pre>
+ * 		<ul>
+ * 			<li>文件按字节处理，分隔符、引号和换行符必须是单字节ASCII字符，适用于 UTF-8、GBK 等编码；
+ * 			<li>支持双引号包围的字段，引号内的分隔符不作为字段分隔；不支持引号内包含换行符；
+ * 			<li>大文件按窗口分段映射，单行长度不能超过映射窗口大小。
+ * 		</ul>
+ * </pre>
+ * 
+ * @version 1.0 2026-10-18
+ * @author ijlhjj
+ */
+public class IDCardFileUtil {
+	private static final int WINDOW_SIZE = 1 << 28;// 每次映射的最大字节数：256M
+
+	/**
+	 * 行处理回调接口，每个数据行（不包括标题行）调用一次
+	 */
+	@FunctionalInterface
+	public interface RowHandler {
+		/**
+		 * @param row    数据行号，从0开始
+		 * @param offset 行在文件中的起始字节位置
+		 * @param length 行字节数，不包括换行符（\n 或 \r\n）
+		 * @param code   身份证号码校验结果码，见 {@link IDCardUtil#VALID} 等常量，缺少指定列时为 BAD_LENGTH
+		 */
+		void handle(long row, long offset, int length, int code);
+	}
+
+	/**
+	 * 校验CSV文件中指定列的身份证号码
+	 * 
+	 * @param csv       CSV文件
+	 * @param column    身份证号码所在列，从0开始
+	 * @param delimiter 字段分隔符
+	 * @param header    第一行是否为标题行，标题行不参与校验
+	 * @return 校验结果，有效行的下标为数据行号
+	 * @throws IOException 文件读取失败、单行长度超过映射窗口大小或数据行数超过int上限
+	 */
+	public static IDCardUtil.CheckResult scan(File csv, int column, char delimiter, boolean header) throws IOException {
+		return scan(csv, column, delimiter, header, null);
+	}
+
+	/**
+	 * 校验CSV文件中指定列的身份证号码，每行校验完成后回调 handler，可以用于记录有效/无效行的文件位置
+	 * 
+	 * @param csv       CSV文件
+	 * @param column    身份证号码所在列，从0开始
+	 * @param delimiter 字段分隔符
+	 * @param header    第一行是否为标题行，标题行不参与校验
+	 * @param handler   行处理回调，可以为null
+	 * @return 校验结果，有效行的下标为数据行号
+	 * @throws IOException 文件读取失败、单行长度超过映射窗口大小或数据行数超过int上限
+	 */
+	public static IDCardUtil.CheckResult scan(File csv, int column, char delimiter, boolean header,
+			RowHandler handler) throws IOException {
+		return scan(csv, column, delimiter, header, handler, null);
+	}
+
+	/**
+	 * 过滤CSV文件：只把指定列为有效身份证号码的行（以及标题行）写入目标文件，行内容按原始字节直接写出
+	 * 
+	 * @param csv       CSV文件
+	 * @param target    过滤后的目标文件，已存在时将被覆盖
+	 * @param column    身份证号码所在列，从0开始
+	 * @param delimiter 字段分隔符
+	 * @param header    第一行是否为标题行，标题行直接写入目标文件
+	 * @return 校验结果，有效行的下标为数据行号
+	 * @throws IOException 文件读写失败、单行长度超过映射窗口大小或数据行数超过int上限
+	 */
+	public static IDCardUtil.CheckResult filter(File csv, File target, int column, char delimiter, boolean header)
+			throws IOException {
+		try (FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			return scan(csv, column, delimiter, header, null, out);
+		}
+	}
+
+	/**
+	 * 扫描文件公共方法：逐窗口映射文件，逐行定位指定列并校验
+	 * 
+	 * @param out 有效行输出通道，为null时不输出
+	 */
+	private static IDCardUtil.CheckResult scan(File csv, int column, char delimiter, boolean header,
+			RowHandler handler, FileChannel out) throws IOException {
+		BitSet valid = new BitSet();
+		int[] rejects = new int[IDCardUtil.BAD_CHECKSUM + 1];
+		long row = 0;
+		boolean skipHeader = header;
+
+		try (FileChannel channel = FileChannel.open(csv.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			long windowStart = 0;
+			while (windowStart < size) {
+				int limit = (int) Math.min(WINDOW_SIZE, size - windowStart);
+				boolean lastWindow = windowStart + limit == size;
+				MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, windowStart, limit);
+
+				int pos = 0;
+				int runStart = 0;// 待输出的连续有效行起始位置
+				while (pos < limit) {
+					int lineEnd = indexOf(buffer, (byte) '\n', pos, limit);
+					if (lineEnd < 0) {
+						if (!lastWindow) // 行不完整，从该行开始重新映射
+							break;
+						lineEnd = limit;
+					}
+					int next = Math.min(lineEnd + 1, limit);
+
+					if (skipHeader) { // 标题行直接输出
+						skipHeader = false;
+						pos = next;
+						continue;
+					}
+
+					if (row >= Integer.MAX_VALUE) // 行号和各项计数都按int记录
+						throw new IOException("数据行数超过上限：" + Integer.MAX_VALUE);
+					int contentEnd = lineEnd > pos && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;// 去除CRLF中的\r
+					int code = checkColumn(buffer, pos, contentEnd, column, (byte) delimiter);
+					rejects[code]++;
+					if (code == IDCardUtil.VALID) {
+						valid.set((int) row);
+					} else if (out != null) { // 输出当前行之前的连续有效行
+						write(out, buffer, runStart, pos);
+						runStart = next;
+					}
+					if (handler != null)
+						handler.handle(row, windowStart + pos, contentEnd - pos, code);
+					row++;
+					pos = next;
+				}
+
+				if (pos == 0 && !lastWindow)
+					throw new IOException("单行长度超过映射窗口大小：" + WINDOW_SIZE);
+				if (out != null)
+					write(out, buffer, runStart, pos);
+				windowStart += pos;
+			}
+		}
+
+		return new IDCardUtil.CheckResult(valid, (int) row, rejects);
+	}
+
+	/**
+	 * 定位一行中的指定列并校验身份证号码，字段两边的空格和双引号会被忽略
+	 * 
+	 * @return 校验结果码，缺少指定列时返回 BAD_LENGTH
+	 */
+	private static int checkColumn(ByteBuffer buffer, int lineStart, int lineEnd, int column, byte delimiter) {
+		int field = 0, fieldStart = lineStart, i = lineStart;
+		boolean quoted = false;
+		for (; i < lineEnd; i++) {
+			byte b = buffer.get(i);
+			if (b == '"') {
+				quoted = !quoted;
+			} else if (b == delimiter && !quoted) {
+				if (field == column)
+					break;
+				field++;
+				fieldStart = i + 1;
+			}
+		}
+		if (field != column) // 缺少指定列
+			return IDCardUtil.BAD_LENGTH;
+
+		int from = fieldStart, to = i;
+		while (from < to && (buffer.get(from) & 0xFF) <= ' ')
+			from++;
+		while (to > from && (buffer.get(to - 1) & 0xFF) <= ' ')
+			to--;
+		if (to - from >= 2 && buffer.get(from) == '"' && buffer.get(to - 1) == '"') { // 去除两边的双引号
+			from++;
+			to--;
+		}
+		return IDCardUtil.getCheckCode(IDCardUtil.parseToLong(buffer, from, to - from));
+	}
+
+	/**
+	 * 查找指定字节的位置，未找到返回-1
+	 */
+	private static int indexOf(ByteBuffer buffer, byte b, int from, int to) {
+		for (int i = from; i < to; i++)
+			if (buffer.get(i) == b)
+				return i;
+		return -1;
+	}
+
+	/**
+	 * 把缓冲区中 [from, to) 范围的字节写入输出通道
+	 */
+	private static void write(FileChannel out, ByteBuffer buffer, int from, int to) throws IOException {
+		if (from >= to)
+			return;
+		ByteBuffer slice = buffer.duplicate();
+		slice.limit(to).position(from);
+		while (slice.hasRemaining())
+			out.write(slice);
+	}
+
+}
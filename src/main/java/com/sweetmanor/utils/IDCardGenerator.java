@@ -0,0 +1,263 @@
+package com.sweetmanor.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 身份证号码生成器：生成带正确校验位的18位身份证号码，用于测试数据构造和压力测试。
+ * 
+ * <pre>
+ * 		<ul>
+ * 			<li>地址码按指定权重随机选择，默认使用区划数据中全部县级代码，权重相同；
+ * 			<li>出生日期在指定范围内均匀分布，默认为 1950-01-01 至 2005-12-31；
+ * 			<li>性别按指定男性比例随机生成，默认为0.5；
+ * 			<li>批量生成时使用 ForkJoinPool.commonPool() 并行生成，每个任务使用独立拆分的 SplittableRandom，
+ * 				相同种子和参数按相同顺序调用时，生成结果完全一致。
+ * 		</ul>
+ * </pre>
+ * 
+ * 生成器不是线程安全的，不能在多个线程中同时调用；批量生成方法内部会自动并行。
+ * 
+ * @version 1.0 2026-10-18
+ * @author ijlhjj
+ */
+public class IDCardGenerator {
+	private static final int LINE_LENGTH = 19;// 输出文件中每行的字节数：18位号码加换行符
+	private static final int THRESHOLD = 1 << 16;// 并行生成时单个任务生成的最大个数
+
+	private final SplittableRandom random;// 随机数生成器，批量生成时从中拆分出新的生成器
+	private int[] regions;// 地址码
+	private double[] cumulativeWeights;// 地址码的累计权重
+	private long birthFrom = LocalDate.of(1950, 1, 1).toEpochDay();// 出生日期下限（包括）
+	private long birthTo = LocalDate.of(2005, 12, 31).toEpochDay();// 出生日期上限（包括）
+	private double maleRatio = 0.5;// 男性比例
+
+	/**
+	 * 使用随机种子创建生成器
+	 */
+	public IDCardGenerator() {
+		this(System.nanoTime());
+	}
+
+	/**
+	 * 使用指定种子创建生成器，相同种子和参数的生成结果相同
+	 */
+	public IDCardGenerator(long seed) {
+		this.random = new SplittableRandom(seed);
+		int[] counties = Arrays.stream(RegionUtil.getCodes())
+				.filter(code -> code % 100 != 0 && IDCardUtil.isValidProvince(code / 10000)).toArray();
+		setRegions(counties, null);
+	}
+
+	/**
+	 * 设置地址码及其权重
+	 * 
+	 * @param regions 6位地址码数组，省份代码必须有效
+	 * @param weights 对应的权重，为null时所有地址码权重相同
+	 * @throws IllegalArgumentException 地址码为空、省份代码无效、权重个数不一致或权重为负数
+	 */
+	public void setRegions(int[] regions, double[] weights) {
+		if (regions == null || regions.length == 0)
+			throw new IllegalArgumentException("地址码不能为空！");
+		if (weights != null && weights.length != regions.length)
+			throw new IllegalArgumentException("权重个数与地址码个数不一致！");
+
+		double[] cumulative = new double[regions.length];
+		double total = 0;
+		for (int i = 0; i < regions.length; i++) {
+			if (regions[i] < 0 || regions[i] >= 1_000_000 || !IDCardUtil.isValidProvince(regions[i] / 10000))
+				throw new IllegalArgumentException("无效的地址码：" + regions[i]);
+			double weight = weights == null ? 1 : weights[i];
+			if (!(weight >= 0))
+				throw new IllegalArgumentException("权重不能为负数：" + weight);
+			total += weight;
+			cumulative[i] = total;
+		}
+		if (!(total > 0))
+			throw new IllegalArgumentException("权重之和必须大于0！");
+
+		this.regions = regions.clone();
+		this.cumulativeWeights = cumulative;
+	}
+
+	/**
+	 * 设置出生日期范围
+	 * 
+	 * @param from 出生日期下限（包括），年份不能早于1583年
+	 * @param to   出生日期上限（包括），年份不能晚于9999年
+	 * @throws IllegalArgumentException 日期超出范围或下限大于上限
+	 */
+	public void setBirthRange(LocalDate from, LocalDate to) {
+		if (from.getYear() < 1583 || to.getYear() > 9999 || from.isAfter(to))
+			throw new IllegalArgumentException("无效的出生日期范围：" + from + " - " + to);
+		this.birthFrom = from.toEpochDay();
+		this.birthTo = to.toEpochDay();
+	}
+
+	/**
+	 * 设置男性比例
+	 * 
+	 * @param maleRatio 男性比例，取值范围 0 - 1
+	 * @throws IllegalArgumentException 比例超出范围
+	 */
+	public void setMaleRatio(double maleRatio) {
+		if (!(maleRatio >= 0 && maleRatio <= 1))
+			throw new IllegalArgumentException("男性比例必须在0到1之间：" + maleRatio);
+		this.maleRatio = maleRatio;
+	}
+
+	/**
+	 * 生成单个身份证号码
+	 */
+	public String next() {
+		char[] idCard = new char[18];
+		next(random, idCard, 0);
+		return new String(idCard);
+	}
+
+	/**
+	 * 批量生成身份证号码写入字符数组，每个号码占18个字符，号码之间没有分隔符
+	 * 
+	 * @param dest   目标数组，必须至少包含 offset + count * 18 个元素
+	 * @param offset 目标数组起始位置
+	 * @param count  生成个数
+	 */
+	public void generate(char[] dest, int offset, int count) {
+		if (offset < 0 || count < 0 || (long) offset + count * 18L > dest.length)
+			throw new IndexOutOfBoundsException("目标数组空间不足！");
+		RangeGenerator generator = (random, from, to) -> {
+			for (long i = from; i < to; i++)
+				next(random, dest, offset + (int) i * 18);
+		};
+		ForkJoinPool.commonPool().invoke(new GenerateTask(generator, random.split(), 0, count));
+	}
+
+	/**
+	 * 批量生成身份证号码写入文件，每个号码占一行（使用\n换行），已存在的文件将被覆盖。<br />
+	 * 每行长度固定，各任务并行生成后直接写入文件中对应的位置。
+	 * 
+	 * @param file  目标文件
+	 * @param count 生成个数
+	 * @throws IOException 文件写入失败
+	 */
+	public void generate(File file, long count) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			RangeGenerator generator = (random, from, to) -> {
+				char[] idCard = new char[18];
+				ByteBuffer buffer = ByteBuffer.allocate((int) (to - from) * LINE_LENGTH);
+				for (long i = from; i < to; i++) {
+					next(random, idCard, 0);
+					for (char c : idCard)
+						buffer.put((byte) c);
+					buffer.put((byte) '\n');
+				}
+				buffer.flip();
+				long position = from * LINE_LENGTH;// 每行长度固定，直接计算写入位置
+				while (buffer.hasRemaining())
+					position += channel.write(buffer, position);
+			};
+			ForkJoinPool.commonPool().invoke(new GenerateTask(generator, random.split(), 0, count));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * 生成一个身份证号码写入目标数组
+	 */
+	private void next(SplittableRandom random, char[] dest, int offset) {
+		// 地址码：按累计权重二分查找
+		double weight = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+		int index = Arrays.binarySearch(cumulativeWeights, weight);
+		if (index < 0)
+			index = -index - 1;
+		int region = regions[Math.min(index, regions.length - 1)];
+
+		// 出生日期：按ISO历法将天数转换为年月日
+		long epochDay = birthFrom + random.nextLong(birthTo - birthFrom + 1);
+		int date = DateUtil.toDateNumber(epochDay);
+
+		// 顺序码：末位奇数为男性，偶数为女性
+		int sequence = random.nextInt(100) * 10 + random.nextInt(5) * 2
+				+ (random.nextDouble() < maleRatio ? 1 : 0);
+
+		int sum = 0;
+		sum += writeDigits(dest, offset, region, 6, 0);
+		sum += writeDigits(dest, offset + 6, date, 8, 6);
+		sum += writeDigits(dest, offset + 14, sequence, 3, 14);
+		dest[offset + 17] = IDCardUtil.checkDigit(sum);
+	}
+
+	/**
+	 * 按十进制写入指定位数的数字，返回这些数字与校验系数的加权和
+	 * 
+	 * @param value      写入的数值
+	 * @param digits     位数，不足时左侧补0
+	 * @param powerIndex 第一位对应的校验系数下标
+	 */
+	private static int writeDigits(char[] dest, int offset, int value, int digits, int powerIndex) {
+		int sum = 0;
+		for (int i = digits - 1; i >= 0; i--) {
+			int d = value % 10;
+			value /= 10;
+			dest[offset + i] = (char) ('0' + d);
+			sum += d * IDCardUtil.checkWeight(powerIndex + i);
+		}
+		return sum;
+	}
+
+	/**
+	 * 按范围生成号码的回调接口
+	 */
+	@FunctionalInterface
+	private interface RangeGenerator {
+		/**
+		 * 生成 [from, to) 范围内的号码
+		 */
+		void generate(SplittableRandom random, long from, long to) throws IOException;
+	}
+
+	/**
+	 * 批量生成任务：按范围二分拆分，左侧子任务使用拆分出的新随机数生成器
+	 */
+	private static class GenerateTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final RangeGenerator generator;
+		private final SplittableRandom random;
+		private final long from, to;
+
+		GenerateTask(RangeGenerator generator, SplittableRandom random, long from, long to) {
+			this.generator = generator;
+			this.random = random;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > THRESHOLD) {
+				long mid = (from + to) >>> 1;
+				invokeAll(new GenerateTask(generator, random.split(), from, mid),
+						new GenerateTask(generator, random, mid, to));
+				return;
+			}
+			try {
+				generator.generate(random, from, to);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+}
@@ -1,9 +1,21 @@
 package com.sweetmanor.utils;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.lang3.time.DateUtils;
@@ -38,6 +50,31 @@ public class IDCardUtil {
 	private static final int[] POWER_LIST = { 7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2 };// 计算校验位的系数
 	private static final String CARD_PATTERN = "^\\d{17}(\\d|x|X)$";// 18位身份证号正则表达式
 	private static final String CARD15_PATTERN = "^\\d{15}$";// 15位身份证号正则表达式
+	private static final char[] PARITY_CHAR = { '1', '0', 'X', '9', '8', '7', '6', '5', '4', '3', '2' };// 校验位对应字符
+	private static final int[] PARITY_VALUE = { 1, 0, 10, 9, 8, 7, 6, 5, 4, 3, 2 };// 校验位对应数值，X记为10
+
+	// 快速校验的结果码
+	public static final int VALID = 0;// 校验通过
+	public static final int BAD_LENGTH = 1;// 长度错误
+	public static final int BAD_FORMAT = 2;// 包含非法字符
+	public static final int BAD_PROVINCE = 3;// 省份代码错误
+	public static final int BAD_DATE = 4;// 出生日期错误
+	public static final int BAD_CHECKSUM = 5;// 校验位错误
+	// 压缩解析结果的字段位置
+	private static final long CODE_MASK = 0xF;// 校验结果码
+	private static final long MALE_FLAG = 1 << 4;// 男性标志
+	private static final long FULL_LENGTH_FLAG = 1 << 5;// 18位身份证标志
+	private static final long BIRTHDAY_FLAG = 1 << 6;// 包含出生日期标志
+	private static final int REGION_SHIFT = 8;// 地址码起始位
+	private static final int REGION_MASK = 0xFFFFF;// 地址码占20位
+	private static final int EPOCH_DAY_SHIFT = 32;// 出生日期起始位
+
+	private static final int BATCH_THRESHOLD = 8192;// 批量校验时单个任务处理的最大行数
+
+	private static final boolean[] PROVINCE_TABLE = new boolean[100];// 以省份代码为下标的快速查找表
+	private static final String[] PROVINCE_NAMES = new String[100];// 以省份代码为下标的省份名称表
+	private static final int CENTURY;// 15位身份证2位年份的世纪基数
+	private static final int CENTURY_START_YEAR;// 2位年份大于等于此值时属于CENTURY世纪，否则属于下一世纪
 
 	private static Map<String, String> provinceMap;
 
@@ -78,6 +115,19 @@ public class IDCardUtil {
 		provinceMap.put("81", "香港");
 		provinceMap.put("82", "澳门");
 		provinceMap.put("91", "国外");
+
+		for (Map.Entry<String, String> entry : provinceMap.entrySet()) {
+			int code = Integer.parseInt(entry.getKey());
+			PROVINCE_TABLE[code] = true;
+			PROVINCE_NAMES[code] = entry.getValue();
+		}
+
+		// 与 DateUtils 解析 yy 模式的规则保持一致：2位年份落在当前时间前80年至后20年的区间内
+		Calendar centuryStart = Calendar.getInstance();
+		centuryStart.add(Calendar.YEAR, -80);
+		int year = centuryStart.get(Calendar.YEAR);
+		CENTURY = year / 100 * 100;
+		CENTURY_START_YEAR = year % 100;
 	};
 
 	/**
@@ -109,6 +159,30 @@ public class IDCardUtil {
 		return true;
 	}
 
+	/**
+	 * 判断是否身份证号码可以使用的省份代码
+	 * 
+	 * @param provinceCode 2位省份代码，例：11
+	 * @return 是否有效的省份代码
+	 */
+	public static boolean isValidProvince(int provinceCode) {
+		return provinceCode >= 0 && provinceCode < PROVINCE_TABLE.length && PROVINCE_TABLE[provinceCode];
+	}
+
+	/**
+	 * 18位身份证第 index 位（0-16）数字计算校验位时的系数
+	 */
+	static int checkWeight(int index) {
+		return POWER_LIST[index];
+	}
+
+	/**
+	 * 根据前17位数字与 {@link #checkWeight(int)} 的加权和计算校验位字符
+	 */
+	static char checkDigit(int sum) {
+		return PARITY_CHAR[sum % 11];
+	}
+
 	/**
 	 * 获取身份证号码所在省，非法值返回null
 	 * 
@@ -212,6 +286,765 @@ public class IDCardUtil {
 		return false;// 默认返回false
 	}
 
+	/**
+	 * 身份证号码快速校验，校验结果与 {@link #check(String)} 一致。<br />
+	 * 单次遍历完成长度、字符、省份、出生日期和校验位的验证，不使用正则表达式，也不创建任何中间对象，适合大批量数据校验。
+	 * 
+	 * @param idCard 身份证号码，判断前会忽略两边空格
+	 * @return 是否正确的身份证号码
+	 */
+	public static boolean fastCheck(CharSequence idCard) {
+		if (idCard == null)
+			return false;
+		return fastCheck(idCard, 0, idCard.length());
+	}
+
+	/**
+	 * 身份证号码快速校验，只校验 idCard 中从 offset 开始的 length 个字符
+	 * 
+	 * @param idCard 包含身份证号码的字符序列, not null
+	 * @param offset 起始位置
+	 * @param length 字符个数
+	 * @return 是否正确的身份证号码
+	 * @see #fastCheck(CharSequence)
+	 */
+	public static boolean fastCheck(CharSequence idCard, int offset, int length) {
+		return getCheckCode(decode(idCard, offset, length)) == VALID;
+	}
+
+	/**
+	 * 身份证号码快速校验，只校验 idCard 中从 offset 开始的 length 个字符
+	 * 
+	 * @param idCard 包含身份证号码的字符数组, not null
+	 * @param offset 起始位置
+	 * @param length 字符个数
+	 * @return 是否正确的身份证号码
+	 * @see #fastCheck(CharSequence)
+	 */
+	public static boolean fastCheck(char[] idCard, int offset, int length) {
+		return getCheckCode(decode(idCard, offset, length)) == VALID;
+	}
+
+	/**
+	 * 身份证号码快速校验，只校验 idCard 中从 offset 开始的 length 个字节，字节按ASCII编码处理
+	 * 
+	 * @param idCard 包含身份证号码的字节数组, not null
+	 * @param offset 起始位置
+	 * @param length 字节个数
+	 * @return 是否正确的身份证号码
+	 * @see #fastCheck(CharSequence)
+	 */
+	public static boolean fastCheck(byte[] idCard, int offset, int length) {
+		return getCheckCode(decode(idCard, offset, length)) == VALID;
+	}
+
+	/**
+	 * 身份证号码快速校验，只校验 idCard 中从 offset 开始的 length 个字节，字节按ASCII编码处理，不改变缓冲区的位置
+	 * 
+	 * @param idCard 包含身份证号码的字节缓冲区, not null
+	 * @param offset 起始位置（绝对位置）
+	 * @param length 字节个数
+	 * @return 是否正确的身份证号码
+	 * @see #fastCheck(CharSequence)
+	 */
+	public static boolean fastCheck(ByteBuffer idCard, int offset, int length) {
+		return getCheckCode(decode(idCard, offset, length)) == VALID;
+	}
+
+	/**
+	 * 身份证号码快速校验，返回校验结果码：{@link #VALID}、{@link #BAD_LENGTH}、{@link #BAD_FORMAT}、
+	 * {@link #BAD_PROVINCE}、{@link #BAD_DATE}、{@link #BAD_CHECKSUM}
+	 * 
+	 * @param idCard 身份证号码，判断前会忽略两边空格，null值返回 BAD_LENGTH
+	 * @return 校验结果码
+	 */
+	public static int checkCode(CharSequence idCard) {
+		return getCheckCode(parseToLong(idCard));
+	}
+
+	/**
+	 * 解析身份证号码，一次遍历得到校验结果和全部字段，适合需要同时获取省份、性别、出生日期的场景
+	 * 
+	 * @param idCard 身份证号码，判断前会忽略两边空格
+	 * @return 解析结果，非法号码也会返回对象，通过 {@link IDCardInfo#isValid()} 判断是否有效
+	 */
+	public static IDCardInfo parse(CharSequence idCard) {
+		return new IDCardInfo(parseToLong(idCard));
+	}
+
+	/**
+	 * 解析身份证号码，结果压缩为一个long值，不创建任何对象，可以使用 getCheckCode(long)、isValid(long)、getRegionCode(long)、
+	 * getProvinceCode(long)、isMale(long)、getBirthEpochDay(long) 等方法读取各字段。压缩格式如下：
+	 * 
+	 * <pre>
+	 * 		<ul>
+	 * 			<li>0-3位：校验结果码；
+	 * 			<li>4位：性别，1为男性；
+	 * 			<li>5位：是否18位身份证；
+	 * 			<li>6位：是否包含出生日期；
+	 * 			<li>8-27位：6位地址码；
+	 * 			<li>32-63位：出生日期，距1970-01-01的天数，与 GregorianCalendar 一致，1582-10-15之前按儒略历计算。
+	 * 		</ul>
+	 * </pre>
+	 * 
+	 * 长度或字符错误时只有校验结果码有效；地址码和性别在省份代码错误时即可读取；出生日期在出生日期校验通过后才会填充。
+	 * 
+	 * @param idCard 身份证号码，判断前会忽略两边空格，null值返回 BAD_LENGTH
+	 * @return 压缩的解析结果
+	 */
+	public static long parseToLong(CharSequence idCard) {
+		if (idCard == null)
+			return BAD_LENGTH;
+		return decode(idCard, 0, idCard.length());
+	}
+
+	/**
+	 * 解析 idCard 中从 offset 开始的 length 个字符，结果格式见 {@link #parseToLong(CharSequence)}
+	 */
+	public static long parseToLong(CharSequence idCard, int offset, int length) {
+		return decode(idCard, offset, length);
+	}
+
+	/**
+	 * 解析 idCard 中从 offset 开始的 length 个字符，结果格式见 {@link #parseToLong(CharSequence)}
+	 */
+	public static long parseToLong(char[] idCard, int offset, int length) {
+		return decode(idCard, offset, length);
+	}
+
+	/**
+	 * 解析 idCard 中从 offset 开始的 length 个字节，字节按ASCII编码处理，结果格式见 {@link #parseToLong(CharSequence)}
+	 */
+	public static long parseToLong(byte[] idCard, int offset, int length) {
+		return decode(idCard, offset, length);
+	}
+
+	/**
+	 * 解析 idCard 中从 offset 开始的 length 个字节，字节按ASCII编码处理，不改变缓冲区的位置，结果格式见
+	 * {@link #parseToLong(CharSequence)}
+	 */
+	public static long parseToLong(ByteBuffer idCard, int offset, int length) {
+		return decode(idCard, offset, length);
+	}
+
+	/**
+	 * @param packed 压缩的解析结果
+	 * @return 校验结果码
+	 */
+	public static int getCheckCode(long packed) {
+		return (int) (packed & CODE_MASK);
+	}
+
+	/**
+	 * @param packed 压缩的解析结果
+	 * @return 是否有效的身份证号码
+	 */
+	public static boolean isValid(long packed) {
+		return getCheckCode(packed) == VALID;
+	}
+
+	/**
+	 * @param packed 压缩的解析结果
+	 * @return 6位地址码，无法解析时返回0
+	 */
+	public static int getRegionCode(long packed) {
+		return (int) (packed >>> REGION_SHIFT) & REGION_MASK;
+	}
+
+	/**
+	 * @param packed 压缩的解析结果
+	 * @return 2位省份代码，无法解析时返回0
+	 */
+	public static int getProvinceCode(long packed) {
+		return getRegionCode(packed) / 10000;
+	}
+
+	/**
+	 * @param packed 压缩的解析结果
+	 * @return 是否男性，无法解析时返回false
+	 */
+	public static boolean isMale(long packed) {
+		return (packed & MALE_FLAG) != 0;
+	}
+
+	/**
+	 * @param packed 压缩的解析结果
+	 * @return 出生日期距1970-01-01的天数，按 GregorianCalendar 的历法计算，未解析出生日期时返回 Long.MIN_VALUE
+	 */
+	public static long getBirthEpochDay(long packed) {
+		if ((packed & BIRTHDAY_FLAG) == 0)
+			return Long.MIN_VALUE;
+		return packed >> EPOCH_DAY_SHIFT;
+	}
+
+	/**
+	 * 快速解析字符序列，返回压缩的解析结果，格式见 {@link #parseToLong(CharSequence)}
+	 */
+	private static long decode(CharSequence s, int offset, int length) {
+		int from = offset, to = offset + length;
+		while (from < to && s.charAt(from) <= ' ') // 与String.trim()保持一致，去除两边空白字符
+			from++;
+		while (to > from && s.charAt(to - 1) <= ' ')
+			to--;
+
+		int len = to - from;
+		if (len != 18 && len != 15) // 位数判断
+			return BAD_LENGTH;
+
+		int body = len == 18 ? 17 : 15;// 本体码位数，15位身份证没有校验位
+		int dateEnd = len == 18 ? 14 : 12;// 出生日期码结束位置
+		int region = 0, date = 0, sum = 0;
+		for (int i = 0; i < body; i++) {
+			int d = s.charAt(from + i) - '0';
+			if (d < 0 || d > 9)
+				return BAD_FORMAT;
+			if (i < 6)
+				region = region * 10 + d;
+			else if (i < dateEnd)
+				date = date * 10 + d;
+			if (i < 17)
+				sum += d * POWER_LIST[i];
+		}
+		int parity = len == 18 ? parityValue(s.charAt(from + 17)) : 0;
+		int gender = s.charAt(from + body - 1) & 1;// 顺序码末位奇数为男性，数字字符的奇偶性与数值一致
+
+		return pack(len, region, date, sum, parity, gender);
+	}
+
+	/**
+	 * 快速解析字符数组，返回压缩的解析结果，格式见 {@link #parseToLong(CharSequence)}
+	 */
+	private static long decode(char[] s, int offset, int length) {
+		int from = offset, to = offset + length;
+		while (from < to && s[from] <= ' ') // 与String.trim()保持一致，去除两边空白字符
+			from++;
+		while (to > from && s[to - 1] <= ' ')
+			to--;
+
+		int len = to - from;
+		if (len != 18 && len != 15) // 位数判断
+			return BAD_LENGTH;
+
+		int body = len == 18 ? 17 : 15;// 本体码位数，15位身份证没有校验位
+		int dateEnd = len == 18 ? 14 : 12;// 出生日期码结束位置
+		int region = 0, date = 0, sum = 0;
+		for (int i = 0; i < body; i++) {
+			int d = s[from + i] - '0';
+			if (d < 0 || d > 9)
+				return BAD_FORMAT;
+			if (i < 6)
+				region = region * 10 + d;
+			else if (i < dateEnd)
+				date = date * 10 + d;
+			if (i < 17)
+				sum += d * POWER_LIST[i];
+		}
+		int parity = len == 18 ? parityValue(s[from + 17]) : 0;
+		int gender = s[from + body - 1] & 1;// 顺序码末位奇数为男性，数字字符的奇偶性与数值一致
+
+		return pack(len, region, date, sum, parity, gender);
+	}
+
+	/**
+	 * 快速解析字节数组，返回压缩的解析结果，格式见 {@link #parseToLong(CharSequence)}
+	 */
+	private static long decode(byte[] s, int offset, int length) {
+		int from = offset, to = offset + length;
+		while (from < to && (s[from] & 0xFF) <= ' ') // 与String.trim()保持一致，去除两边空白字符
+			from++;
+		while (to > from && (s[to - 1] & 0xFF) <= ' ')
+			to--;
+
+		int len = to - from;
+		if (len != 18 && len != 15) // 位数判断
+			return BAD_LENGTH;
+
+		int body = len == 18 ? 17 : 15;// 本体码位数，15位身份证没有校验位
+		int dateEnd = len == 18 ? 14 : 12;// 出生日期码结束位置
+		int region = 0, date = 0, sum = 0;
+		for (int i = 0; i < body; i++) {
+			int d = (s[from + i] & 0xFF) - '0';
+			if (d < 0 || d > 9)
+				return BAD_FORMAT;
+			if (i < 6)
+				region = region * 10 + d;
+			else if (i < dateEnd)
+				date = date * 10 + d;
+			if (i < 17)
+				sum += d * POWER_LIST[i];
+		}
+		int parity = len == 18 ? parityValue((char) (s[from + 17] & 0xFF)) : 0;
+		int gender = s[from + body - 1] & 1;// 顺序码末位奇数为男性，数字字符的奇偶性与数值一致
+
+		return pack(len, region, date, sum, parity, gender);
+	}
+
+	/**
+	 * 快速解析字节缓冲区，返回压缩的解析结果，格式见 {@link #parseToLong(CharSequence)}
+	 */
+	private static long decode(ByteBuffer s, int offset, int length) {
+		int from = offset, to = offset + length;
+		while (from < to && (s.get(from) & 0xFF) <= ' ') // 与String.trim()保持一致，去除两边空白字符
+			from++;
+		while (to > from && (s.get(to - 1) & 0xFF) <= ' ')
+			to--;
+
+		int len = to - from;
+		if (len != 18 && len != 15) // 位数判断
+			return BAD_LENGTH;
+
+		int body = len == 18 ? 17 : 15;// 本体码位数，15位身份证没有校验位
+		int dateEnd = len == 18 ? 14 : 12;// 出生日期码结束位置
+		int region = 0, date = 0, sum = 0;
+		for (int i = 0; i < body; i++) {
+			int d = (s.get(from + i) & 0xFF) - '0';
+			if (d < 0 || d > 9)
+				return BAD_FORMAT;
+			if (i < 6)
+				region = region * 10 + d;
+			else if (i < dateEnd)
+				date = date * 10 + d;
+			if (i < 17)
+				sum += d * POWER_LIST[i];
+		}
+		int parity = len == 18 ? parityValue((char) (s.get(from + 17) & 0xFF)) : 0;
+		int gender = s.get(from + body - 1) & 1;// 顺序码末位奇数为男性，数字字符的奇偶性与数值一致
+
+		return pack(len, region, date, sum, parity, gender);
+	}
+
+	/**
+	 * 校验位字符转换为数值，x/X记为10，非法字符返回-1
+	 */
+	private static int parityValue(char c) {
+		if (c >= '0' && c <= '9')
+			return c - '0';
+		if (c == 'X' || c == 'x')
+			return 10;
+		return -1;
+	}
+
+	/**
+	 * 对快速解析中提取的各字段进行验证并压缩为long值，验证顺序与 {@link #check(String)} 一致
+	 * 
+	 * @param len    身份证位数：15或18
+	 * @param region 6位地址码
+	 * @param date   出生日期码：18位为yyyyMMdd，15位为yyMMdd
+	 * @param sum    前17位加权和，15位身份证忽略
+	 * @param parity 校验位数值，15位身份证忽略
+	 * @param gender 顺序码末位的奇偶性，1为男性
+	 * @return 压缩的解析结果
+	 */
+	private static long pack(int len, int region, int date, int sum, int parity, int gender) {
+		if (parity < 0)
+			return BAD_FORMAT;
+		long packed = (long) region << REGION_SHIFT | (gender == 1 ? MALE_FLAG : 0)
+				| (len == 18 ? FULL_LENGTH_FLAG : 0);
+		if (!PROVINCE_TABLE[region / 10000]) // 判断区域代码
+			return packed | BAD_PROVINCE;
+
+		int year = date / 10000, month = date / 100 % 100, day = date % 100;
+		if (len == 15) // 2位年份转换为4位年份
+			year += centuryOf(year) * 100;
+		if (!isValidDate(year, month, day)) // 校验出身日期合法性
+			return packed | BAD_DATE;
+		packed |= epochDay(year, month, day) << EPOCH_DAY_SHIFT | BIRTHDAY_FLAG;
+
+		if (len == 18 && PARITY_VALUE[sum % 11] != parity) // 校验位判断
+			return packed | BAD_CHECKSUM;
+		return packed | VALID;
+	}
+
+	/**
+	 * 计算日期距1970-01-01的天数，历法与 GregorianCalendar 一致：1582-10-15起为格里高利历，之前为儒略历
+	 */
+	private static long epochDay(int year, int month, int day) {
+		if (year > 1582 || (year == 1582 && (month > 10 || (month == 10 && day >= 15))))
+			return DateUtil.toEpochDay(year, month, day);
+		int a = (14 - month) / 12;// 按3月为一年的开始计算儒略日
+		long y = year + 4800 - a;
+		int m = month + 12 * a - 3;
+		return day + (153 * m + 2) / 5 + 365 * y + y / 4 - 32083 - 2440588;// 2440588为1970-01-01的儒略日
+	}
+
+	/**
+	 * 判断日期是否存在，规则与 GregorianCalendar 严格模式一致：1582年10月15日之前使用儒略历，中间跳过的10天不存在
+	 */
+	private static boolean isValidDate(int year, int month, int day) {
+		if (year < 1 || month < 1 || month > 12 || day < 1)
+			return false;
+		if (year == 1582 && month == 10 && day > 4 && day < 15) // 格里高利历切换时跳过的日期
+			return false;
+
+		int maxDay;
+		if (month == 2) {
+			boolean leap = year < 1582 ? year % 4 == 0 : (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+			maxDay = leap ? 29 : 28;
+		} else if (month == 4 || month == 6 || month == 9 || month == 11) {
+			maxDay = 30;
+		} else {
+			maxDay = 31;
+		}
+		return day <= maxDay;
+	}
+
+	/**
+	 * 批量校验身份证号码，数据量较大时使用 ForkJoinPool.commonPool() 多线程并行校验
+	 * 
+	 * @param idCards 身份证号码列表, not null，null元素按长度错误处理；非随机访问列表会先复制为数组
+	 * @return 校验结果，有效行的下标与列表下标一致
+	 */
+	public static CheckResult checkAll(List<String> idCards) {
+		if (!(idCards instanceof RandomAccess))
+			idCards = new ArrayList<>(idCards);
+		int rows = idCards.size();
+		long[] words = new long[(rows + 63) >>> 6];
+		int[] rejects = ForkJoinPool.commonPool().invoke(new ListCheckTask(idCards, words, 0, rows));
+		return new CheckResult(BitSet.valueOf(words), rows, rejects);
+	}
+
+	/**
+	 * 批量校验身份证号码，数据量较大时使用 ForkJoinPool.commonPool() 多线程并行校验
+	 * 
+	 * @param idCards 身份证号码数组, not null，null元素按长度错误处理
+	 * @return 校验结果，有效行的下标与数组下标一致
+	 */
+	public static CheckResult checkAll(String[] idCards) {
+		return checkAll(Arrays.asList(idCards));
+	}
+
+	/**
+	 * 批量校验按换行符分隔的身份证号码，数据量较大时按行边界分段，使用 ForkJoinPool.commonPool() 多线程并行校验。<br />
+	 * 校验范围为缓冲区的 position 至 limit，不改变缓冲区的位置；行尾的回车符和两边空格会被忽略，最后一个换行符之后的空内容不计为一行。
+	 * 
+	 * @param lines 按行存储的身份证号码，按ASCII编码处理, not null
+	 * @return 校验结果，有效行的下标为从0开始的行号
+	 */
+	public static CheckResult checkAll(ByteBuffer lines) {
+		int start = lines.position(), end = lines.limit();
+		int segments = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4,
+				(end - start) / (BATCH_THRESHOLD * 16)));// 按平均每行16字节估算分段数
+
+		// 按行边界切分缓冲区，每段由一个任务独立校验
+		List<BufferCheckTask> tasks = new ArrayList<>(segments);
+		int from = start;
+		for (int i = 1; i <= segments && from < end; i++) {
+			int to = i == segments ? end : Math.max(from + 1, start + (int) ((long) (end - start) * i / segments));
+			while (to < end && lines.get(to - 1) != '\n') // 分段结束位置后移到换行符之后
+				to++;
+			tasks.add(new BufferCheckTask(lines, from, to));
+			from = to;
+		}
+		for (BufferCheckTask task : tasks) // 非ForkJoin线程中调用fork将提交到 ForkJoinPool.commonPool() 执行
+			task.fork();
+		for (BufferCheckTask task : tasks)
+			task.join();
+
+		// 按顺序合并各分段结果
+		BitSet valid = new BitSet();
+		int rows = 0;
+		int[] rejects = new int[BAD_CHECKSUM + 1];
+		for (BufferCheckTask task : tasks) {
+			BitSet part = task.valid;
+			for (int i = part.nextSetBit(0); i >= 0; i = part.nextSetBit(i + 1))
+				valid.set(rows + i);
+			rows += task.rows;
+			for (int i = 0; i < rejects.length; i++)
+				rejects[i] += task.rejects[i];
+		}
+		return new CheckResult(valid, rows, rejects);
+	}
+
+	/**
+	 * 批量校验结果
+	 */
+	public static class CheckResult {
+		private final BitSet valid;// 有效行标记
+		private final int total;// 总行数
+		private final int[] rejects;// 按结果码统计的行数
+
+		CheckResult(BitSet valid, int total, int[] rejects) {
+			this.valid = valid;
+			this.total = total;
+			this.rejects = rejects;
+		}
+
+		/**
+		 * @return 有效行标记的副本，对应行有效时该位为true；只需要遍历时使用 {@link #nextValid(int)} 避免复制
+		 */
+		public BitSet getValid() {
+			return (BitSet) valid.clone();
+		}
+
+		/**
+		 * @return 指定行是否有效
+		 */
+		public boolean isValid(int row) {
+			return valid.get(row);
+		}
+
+		/**
+		 * @param fromRow 起始行（包括）
+		 * @return fromRow 及之后的第一个有效行，没有时返回-1
+		 */
+		public int nextValid(int fromRow) {
+			return valid.nextSetBit(fromRow);
+		}
+
+		/**
+		 * @return 校验总行数
+		 */
+		public int getTotal() {
+			return total;
+		}
+
+		/**
+		 * @return 有效行数
+		 */
+		public int getValidCount() {
+			return rejects[VALID];
+		}
+
+		/**
+		 * @param reason 结果码：BAD_LENGTH、BAD_FORMAT、BAD_PROVINCE、BAD_DATE、BAD_CHECKSUM
+		 * @return 因指定原因校验失败的行数
+		 */
+		public int getRejectCount(int reason) {
+			return reason > VALID && reason < rejects.length ? rejects[reason] : 0;
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getName() + " [total=" + total + ", valid=" + rejects[VALID] + ", badLength="
+					+ rejects[BAD_LENGTH] + ", badFormat=" + rejects[BAD_FORMAT] + ", badProvince="
+					+ rejects[BAD_PROVINCE] + ", badDate=" + rejects[BAD_DATE] + ", badChecksum="
+					+ rejects[BAD_CHECKSUM] + "]";
+		}
+	}
+
+	/**
+	 * 身份证号码解析结果：不可变对象，各字段在解析时一次性计算完成，读取时不再重复校验
+	 */
+	public static final class IDCardInfo {
+		private final long packed;// 压缩的解析结果
+		private final int checkCode;// 校验结果码
+		private final int regionCode;// 6位地址码
+		private final long birthEpochDay;// 出生日期距1970-01-01的天数
+		private final boolean male;// 是否男性
+		private final boolean fullLength;// 是否18位身份证
+
+		/**
+		 * @param packed 压缩的解析结果，见 {@link IDCardUtil#parseToLong(CharSequence)}
+		 */
+		public IDCardInfo(long packed) {
+			this.packed = packed;
+			this.checkCode = IDCardUtil.getCheckCode(packed);
+			this.regionCode = IDCardUtil.getRegionCode(packed);
+			this.birthEpochDay = IDCardUtil.getBirthEpochDay(packed);
+			this.male = IDCardUtil.isMale(packed);
+			this.fullLength = (packed & FULL_LENGTH_FLAG) != 0;
+		}
+
+		/**
+		 * @return 是否有效的身份证号码
+		 */
+		public boolean isValid() {
+			return checkCode == VALID;
+		}
+
+		/**
+		 * @return 校验结果码
+		 */
+		public int getCheckCode() {
+			return checkCode;
+		}
+
+		/**
+		 * @return 6位地址码，无法解析时返回0
+		 */
+		public int getRegionCode() {
+			return regionCode;
+		}
+
+		/**
+		 * @return 2位省份代码，无法解析时返回0
+		 */
+		public int getProvinceCode() {
+			return regionCode / 10000;
+		}
+
+		/**
+		 * @return 省份名称，例： 北京 / 河北，无法解析时返回null
+		 */
+		public String getProvince() {
+			return PROVINCE_NAMES[getProvinceCode()];
+		}
+
+		/**
+		 * @return 地级区划名称，例：杭州市，无法解析或没有区划数据时返回null
+		 * @see RegionUtil#getCity(int)
+		 */
+		public String getCity() {
+			return RegionUtil.getCity(regionCode);
+		}
+
+		/**
+		 * @return 县级区划名称，例：西城区，无法解析或没有区划数据时返回null
+		 * @see RegionUtil#getCounty(int)
+		 */
+		public String getCounty() {
+			return RegionUtil.getCounty(regionCode);
+		}
+
+		/**
+		 * @return 出生日期距1970-01-01的天数，按 GregorianCalendar 的历法计算，未解析出生日期时返回 Long.MIN_VALUE
+		 */
+		public long getBirthEpochDay() {
+			return birthEpochDay;
+		}
+
+		/**
+		 * @return 出生日期，默认时区的0点，与 {@link IDCardUtil#getBirthday(String)} 一致，未解析出生日期时返回null
+		 */
+		public Date getBirthDate() {
+			if (birthEpochDay == Long.MIN_VALUE)
+				return null;
+			Calendar cal = new GregorianCalendar();
+			cal.clear();
+			cal.set(1970, Calendar.JANUARY, 1);
+			cal.add(Calendar.DATE, (int) birthEpochDay);// 按实际天数相加，跨越历法切换时与 GregorianCalendar 一致
+			return cal.getTime();
+		}
+
+		/**
+		 * @return 是否男性
+		 */
+		public boolean isMale() {
+			return male;
+		}
+
+		/**
+		 * @return 男 / 女，无法解析时返回null
+		 */
+		public String getGender() {
+			if (checkCode == BAD_LENGTH || checkCode == BAD_FORMAT) // 长度或字符错误时没有解析性别
+				return null;
+			return male ? "男" : "女";
+		}
+
+		/**
+		 * @return 是否18位身份证
+		 */
+		public boolean isFullLength() {
+			return fullLength;
+		}
+
+		/**
+		 * @return 压缩的解析结果
+		 */
+		public long toLong() {
+			return packed;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			return packed == ((IDCardInfo) obj).packed;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(packed);
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getName() + " [checkCode=" + checkCode + ", regionCode=" + regionCode + ", birthDate="
+					+ (birthEpochDay == Long.MIN_VALUE ? null : DateUtil.format(getBirthDate(), "yyyy-MM-dd"))
+					+ ", gender=" + getGender() + ", fullLength=" + fullLength + "]";
+		}
+	}
+
+	/**
+	 * 列表批量校验任务：按64行对齐拆分，每个子任务只写入自己范围内的位标记数组元素，不需要同步
+	 */
+	private static class ListCheckTask extends RecursiveTask<int[]> {
+		private static final long serialVersionUID = 1L;
+
+		private final List<String> idCards;
+		private final long[] words;
+		private final int from, to;
+
+		ListCheckTask(List<String> idCards, long[] words, int from, int to) {
+			this.idCards = idCards;
+			this.words = words;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected int[] compute() {
+			if (to - from > BATCH_THRESHOLD) {
+				int mid = ((from + to) >>> 1) & ~63;// 中间位置按64对齐
+				ListCheckTask left = new ListCheckTask(idCards, words, from, mid);
+				left.fork();
+				int[] result = new ListCheckTask(idCards, words, mid, to).compute();
+				int[] leftResult = left.join();
+				for (int i = 0; i < result.length; i++)
+					result[i] += leftResult[i];
+				return result;
+			}
+
+			int[] rejects = new int[BAD_CHECKSUM + 1];
+			for (int i = from; i < to; i++) {
+				int code = checkCode(idCards.get(i));
+				rejects[code]++;
+				if (code == VALID)
+					words[i >>> 6] |= 1L << i;
+			}
+			return rejects;
+		}
+	}
+
+	/**
+	 * 缓冲区分段校验任务：逐行校验 [from, to) 范围内的数据，行号从0开始
+	 */
+	private static class BufferCheckTask extends RecursiveTask<Void> {
+		private static final long serialVersionUID = 1L;
+
+		private final ByteBuffer lines;
+		private final int from, to;
+		private final BitSet valid = new BitSet();
+		private final int[] rejects = new int[BAD_CHECKSUM + 1];
+		private int rows;
+
+		BufferCheckTask(ByteBuffer lines, int from, int to) {
+			this.lines = lines;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Void compute() {
+			int lineStart = from;
+			while (lineStart < to) {
+				int lineEnd = lineStart;
+				while (lineEnd < to && lines.get(lineEnd) != '\n')
+					lineEnd++;
+				int code = getCheckCode(decode(lines, lineStart, lineEnd - lineStart));
+				rejects[code]++;
+				if (code == VALID)
+					valid.set(rows);
+				rows++;
+				lineStart = lineEnd + 1;
+			}
+			return null;
+		}
+	}
+
 	/**
 	 * 根据身份证前17位数字获取校验位的值，非法入参将返回空字符串“”
 	 * 
@@ -242,25 +1075,116 @@ public class IDCardUtil {
 	 * @return 转换后的18位身份证号码，非法入参将返回null
 	 */
 	public static String convertIdcarBy15bit(String idCard15) {
-		idCard15 = standardizing(idCard15);// 标准化处理
-
-		if (idCard15.length() != 15) // 非15位身份证
+		if (idCard15 == null)
 			return null;
-
-		String idCard = null;
-		if (NumberUtils.isDigits(idCard15)) {// 必须是纯数字
-			Date birthday = getBirthday(idCard15);// 获取出生日期
-			if (birthday == null) // 出生日期转换错误时返回null
-				return null;
-			// 拼接前17位信息，2位年份转成了4位年份
-			idCard = idCard15.substring(0, 6) + DateUtil.format(birthday, "yyyyMMdd") + idCard15.substring(12);
-			String checkBit = checkBit(idCard);// 计算校验位
-			idCard += checkBit; // 拼接校验位
-		} else {
+		char[] idCard = new char[18];
+		if (!convertTo18(idCard15, 0, idCard15.length(), idCard, 0))
 			return null;
+		return new String(idCard);
+	}
+
+	/**
+	 * 将15位的身份证转换成18位身份证，结果直接写入目标数组，不创建任何中间对象。<br />
+	 * 2位年份按 {@link #check(String)} 相同的规则补全世纪，校验位按算术方式计算；只有校验通过的15位身份证才会转换。
+	 * 
+	 * @param idCard15   包含15位身份证号码的字符序列, not null，两边空格会被忽略
+	 * @param offset     起始位置
+	 * @param length     字符个数
+	 * @param dest       目标数组，从 destOffset 开始写入18个字符
+	 * @param destOffset 目标数组起始位置
+	 * @return 转换成功返回true，非法入参返回false且不写入目标数组
+	 */
+	public static boolean convertTo18(CharSequence idCard15, int offset, int length, char[] dest, int destOffset) {
+		long packed = decode(idCard15, offset, length);
+		if (getCheckCode(packed) != VALID || (packed & FULL_LENGTH_FLAG) != 0)
+			return false;
+		while (idCard15.charAt(offset) <= ' ') // 校验通过时去除左侧空白字符后即为15位数字
+			offset++;
+
+		int century = centuryOf((idCard15.charAt(offset + 6) - '0') * 10 + idCard15.charAt(offset + 7) - '0');
+		int sum = 0;
+		for (int i = 0; i < 17; i++) {
+			int d;
+			if (i < 6) // 地址码
+				d = idCard15.charAt(offset + i) - '0';
+			else if (i < 8) // 补全的世纪
+				d = i == 6 ? century / 10 : century % 10;
+			else // 出生日期和顺序码
+				d = idCard15.charAt(offset + i - 2) - '0';
+			dest[destOffset + i] = (char) ('0' + d);
+			sum += d * POWER_LIST[i];
 		}
+		dest[destOffset + 17] = checkDigit(sum);
+		return true;
+	}
 
-		return idCard;
+	/**
+	 * 将15位的身份证转换成18位身份证，结果直接写入目标数组，字节按ASCII编码处理
+	 * 
+	 * @param idCard15   包含15位身份证号码的字节数组, not null，两边空格会被忽略
+	 * @param offset     起始位置
+	 * @param length     字节个数
+	 * @param dest       目标数组，从 destOffset 开始写入18个字节
+	 * @param destOffset 目标数组起始位置
+	 * @return 转换成功返回true，非法入参返回false且不写入目标数组
+	 * @see #convertTo18(CharSequence, int, int, char[], int)
+	 */
+	public static boolean convertTo18(byte[] idCard15, int offset, int length, byte[] dest, int destOffset) {
+		long packed = decode(idCard15, offset, length);
+		if (getCheckCode(packed) != VALID || (packed & FULL_LENGTH_FLAG) != 0)
+			return false;
+		while ((idCard15[offset] & 0xFF) <= ' ') // 校验通过时去除左侧空白字符后即为15位数字
+			offset++;
+
+		int century = centuryOf((idCard15[offset + 6] - '0') * 10 + idCard15[offset + 7] - '0');
+		int sum = 0;
+		for (int i = 0; i < 17; i++) {
+			int d;
+			if (i < 6) // 地址码
+				d = idCard15[offset + i] - '0';
+			else if (i < 8) // 补全的世纪
+				d = i == 6 ? century / 10 : century % 10;
+			else // 出生日期和顺序码
+				d = idCard15[offset + i - 2] - '0';
+			dest[destOffset + i] = (byte) ('0' + d);
+			sum += d * POWER_LIST[i];
+		}
+		dest[destOffset + 17] = (byte) checkDigit(sum);
+		return true;
+	}
+
+	/**
+	 * 批量将15位的身份证转换成18位身份证并写入输出流，每个号码占一行；非法号码输出空行，保证输出行号与输入顺序一致。<br />
+	 * 整个转换过程只使用一个行缓冲区，适合大批量历史数据迁移。
+	 * 
+	 * @param idCards15 15位身份证号码集合, not null，null元素按非法号码处理
+	 * @param out       输出流, not null，方法内不会关闭
+	 * @return 转换成功的号码个数
+	 * @throws IOException 写入输出流失败
+	 */
+	public static int convertAll(Iterable<? extends CharSequence> idCards15, Writer out) throws IOException {
+		char[] line = new char[19];// 18位身份证加换行符
+		line[18] = '\n';
+		int count = 0;
+		for (CharSequence idCard15 : idCards15) {
+			if (idCard15 != null && convertTo18(idCard15, 0, idCard15.length(), line, 0)) {
+				out.write(line);
+				count++;
+			} else {
+				out.write('\n');
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 2位年份补全为4位年份时的世纪数，规则与 {@link #check(String)} 一致
+	 * 
+	 * @param year 2位年份
+	 * @return 世纪数，例：19 / 20
+	 */
+	private static int centuryOf(int year) {
+		return (year >= CENTURY_START_YEAR ? CENTURY : CENTURY + 100) / 100;
 	}
 
 	/**
@@ -0,0 +1,273 @@
+package com.sweetmanor.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.InvalidParameterException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * 密钥文件工具类：使用标准编码格式保存密钥，代替 Java 序列化。
+ * 
+ * <pre>
+ * 		<ul>
+ * 			<li>对称密钥保存为原始字节，私钥保存为 PKCS#8 DER，公钥保存为 X.509 DER，文件中不包含算法信息；
+ * 			<li>读取的密钥按文件绝对路径缓存，文件修改时间或大小改变后重新读取；
+ * 			<li>同一秒内以相同大小覆盖文件时修改时间可能不变，这种情况需要调用 invalidate 使缓存失效；
+ * 			<li>对称密钥和私钥文件在支持 POSIX 权限的系统上只允许所有者读写。
+ * 		</ul>
+ * </pre>
+ * 
+ * @version 1.0 2026-10-18
+ * @author ijlhjj
+ */
+public class KeyFileUtil {
+	private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+	private static final Map<String, CachedKey> CACHE = new ConcurrentHashMap<>();// 以文件绝对路径为键值的密钥缓存
+
+	/**
+	 * 生成对称密钥并保存为原始字节
+	 * 
+	 * @param algorithm 算法，例如 AES
+	 * @param keySize   密钥长度（位），例如 AES 为128、192或256
+	 * @param file      密钥文件，已存在时将被覆盖
+	 * @return 生成的密钥
+	 * @throws IOException              文件写入失败
+	 * @throws GeneralSecurityException 不支持的算法或密钥长度
+	 */
+	public static SecretKey createSecretKey(String algorithm, int keySize, File file)
+			throws IOException, GeneralSecurityException {
+		KeyGenerator keygen = KeyGenerator.getInstance(algorithm);
+		try {
+			keygen.init(keySize);
+		} catch (InvalidParameterException e) {
+			throw new InvalidAlgorithmParameterException("不支持的密钥长度：" + keySize, e);
+		}
+		SecretKey key = keygen.generateKey();
+		writeSecretKey(key, file);
+		return key;
+	}
+
+	/**
+	 * 生成非对称密钥对，私钥保存为 PKCS#8 DER，公钥保存为 X.509 DER
+	 * 
+	 * @param algorithm      算法，例如 RSA、EC
+	 * @param keySize        密钥长度（位），例如 RSA 为2048、3072、4096，EC 为256、384
+	 * @param privateKeyFile 私钥文件，已存在时将被覆盖
+	 * @param publicKeyFile  公钥文件，已存在时将被覆盖
+	 * @return 生成的密钥对
+	 * @throws IOException              文件写入失败
+	 * @throws GeneralSecurityException 不支持的算法或密钥长度
+	 */
+	public static KeyPair createKeyPair(String algorithm, int keySize, File privateKeyFile, File publicKeyFile)
+			throws IOException, GeneralSecurityException {
+		KeyPairGenerator keyPairGen = KeyPairGenerator.getInstance(algorithm);
+		try {
+			keyPairGen.initialize(keySize);
+		} catch (InvalidParameterException e) {
+			throw new InvalidAlgorithmParameterException("不支持的密钥长度：" + keySize, e);
+		}
+		KeyPair keyPair = keyPairGen.generateKeyPair();
+		writePrivateKey(keyPair.getPrivate(), privateKeyFile);
+		writePublicKey(keyPair.getPublic(), publicKeyFile);
+		return keyPair;
+	}
+
+	/**
+	 * 保存对称密钥为原始字节，并更新缓存
+	 * 
+	 * @throws IOException         文件写入失败
+	 * @throws InvalidKeyException 密钥不支持原始字节编码
+	 */
+	public static void writeSecretKey(SecretKey key, File file) throws IOException, InvalidKeyException {
+		write(key, "RAW", file, true);
+	}
+
+	/**
+	 * 保存私钥为 PKCS#8 DER，并更新缓存
+	 * 
+	 * @throws IOException         文件写入失败
+	 * @throws InvalidKeyException 密钥不支持 PKCS#8 编码
+	 */
+	public static void writePrivateKey(PrivateKey key, File file) throws IOException, InvalidKeyException {
+		write(key, "PKCS#8", file, true);
+	}
+
+	/**
+	 * 保存公钥为 X.509 DER，并更新缓存
+	 * 
+	 * @throws IOException         文件写入失败
+	 * @throws InvalidKeyException 密钥不支持 X.509 编码
+	 */
+	public static void writePublicKey(PublicKey key, File file) throws IOException, InvalidKeyException {
+		write(key, "X.509", file, false);
+	}
+
+	/**
+	 * 读取对称密钥，文件没有变化时直接返回缓存的密钥
+	 * 
+	 * @param file      密钥文件
+	 * @param algorithm 算法，例如 AES
+	 * @throws IOException              文件读取失败
+	 * @throws GeneralSecurityException 密钥文件为空
+	 */
+	public static SecretKey readSecretKey(File file, String algorithm) throws IOException, GeneralSecurityException {
+		return (SecretKey) read(file, algorithm, SecretKey.class);
+	}
+
+	/**
+	 * 读取 PKCS#8 DER 格式的私钥，文件没有变化时直接返回缓存的密钥
+	 * 
+	 * @param file      密钥文件
+	 * @param algorithm 算法，例如 RSA、EC
+	 * @throws IOException              文件读取失败
+	 * @throws GeneralSecurityException 不支持的算法或文件内容不是有效的私钥
+	 */
+	public static PrivateKey readPrivateKey(File file, String algorithm) throws IOException, GeneralSecurityException {
+		return (PrivateKey) read(file, algorithm, PrivateKey.class);
+	}
+
+	/**
+	 * 读取 X.509 DER 格式的公钥，文件没有变化时直接返回缓存的密钥
+	 * 
+	 * @param file      密钥文件
+	 * @param algorithm 算法，例如 RSA、EC
+	 * @throws IOException              文件读取失败
+	 * @throws GeneralSecurityException 不支持的算法或文件内容不是有效的公钥
+	 */
+	public static PublicKey readPublicKey(File file, String algorithm) throws IOException, GeneralSecurityException {
+		return (PublicKey) read(file, algorithm, PublicKey.class);
+	}
+
+	/**
+	 * 使指定文件的缓存失效
+	 */
+	public static void invalidate(File file) {
+		CACHE.remove(file.getAbsolutePath());
+	}
+
+	/**
+	 * 清空全部缓存
+	 */
+	public static void invalidateAll() {
+		CACHE.clear();
+	}
+
+	/**
+	 * 保存密钥的编码并更新缓存
+	 * 
+	 * @param format 要求的编码格式
+	 * @param secret 是否只允许所有者读写
+	 */
+	private static void write(Key key, String format, File file, boolean secret)
+			throws IOException, InvalidKeyException {
+		byte[] encoded = key.getEncoded();
+		if (encoded == null || !format.equalsIgnoreCase(key.getFormat()))
+			throw new InvalidKeyException("密钥编码格式不是 " + format + "：" + key.getFormat());
+
+		FileUtils.forceMkdirParent(file);
+		Path path = file.toPath();
+		if (secret)
+			writeSecret(path, encoded);
+		else
+			Files.write(path, encoded);
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		CACHE.put(file.getAbsolutePath(), new CachedKey(key, attributes));
+	}
+
+	/**
+	 * 写入对称密钥或私钥：先在同一目录创建只允许所有者读写的临时文件并写入，再原子替换目标文件，
+	 * 密钥内容不会出现在权限较宽的文件中
+	 */
+	private static void writeSecret(Path path, byte[] encoded) throws IOException {
+		Path dir = path.toAbsolutePath().getParent();
+		Path temp;
+		try {
+			temp = Files.createTempFile(dir, ".key", ".tmp", PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+		} catch (UnsupportedOperationException e) { // 不支持 POSIX 权限的文件系统
+			temp = Files.createTempFile(dir, ".key", ".tmp");
+		}
+		try {
+			Files.write(temp, encoded);
+			try {
+				Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * 读取密钥，缓存的密钥类型、算法、文件修改时间和大小都一致时直接返回
+	 */
+	private static Key read(File file, String algorithm, Class<? extends Key> type)
+			throws IOException, GeneralSecurityException {
+		String path = file.getAbsolutePath();
+		BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		CachedKey cached = CACHE.get(path);
+		if (cached != null && cached.matches(attributes, algorithm, type))
+			return cached.key;
+
+		byte[] encoded = Files.readAllBytes(file.toPath());
+		Key key;
+		if (type == SecretKey.class) {
+			if (encoded.length == 0)
+				throw new InvalidKeyException("密钥文件为空：" + file);
+			key = new SecretKeySpec(encoded, algorithm);
+		} else if (type == PrivateKey.class) {
+			key = KeyFactory.getInstance(algorithm).generatePrivate(new PKCS8EncodedKeySpec(encoded));
+		} else {
+			key = KeyFactory.getInstance(algorithm).generatePublic(new X509EncodedKeySpec(encoded));
+		}
+		CACHE.put(path, new CachedKey(key, attributes));
+		return key;
+	}
+
+	/**
+	 * 缓存的密钥及读取时的文件修改时间和大小
+	 */
+	private static class CachedKey {
+		final Key key;
+		final long lastModified;
+		final long size;
+
+		CachedKey(Key key, BasicFileAttributes attributes) {
+			this.key = key;
+			this.lastModified = attributes.lastModifiedTime().toMillis();
+			this.size = attributes.size();
+		}
+
+		boolean matches(BasicFileAttributes attributes, String algorithm, Class<? extends Key> type) {
+			return lastModified == attributes.lastModifiedTime().toMillis() && size == attributes.size()
+					&& type.isInstance(key) && algorithm.equalsIgnoreCase(key.getAlgorithm());
+		}
+	}
+
+}
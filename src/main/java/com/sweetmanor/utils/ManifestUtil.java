@@ -0,0 +1,414 @@
+package com.sweetmanor.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 文件校验清单工具类：并行计算目录下所有文件的摘要并写入清单文件，再次校验时跳过大小和修改时间都没有变化的文件。
+ * 
+ * <pre>
+ * 清单文件为 UTF-8 文本，第一行为 "# 摘要算法"，之后每个文件一行：
+ * 		十六进制摘要 文件大小 修改时间毫秒值 相对路径
+ * 相对路径以 '/' 分隔，可以包含空格；路径包含换行符（'\n' 或 '\r'）的文件不写入清单，记为计算失败。
+ * </pre>
+ * 
+ * @version 1.0 2026-10-18
+ * @author ijlhjj
+ */
+public class ManifestUtil {
+	private static final String HEADER = "# ";// 清单文件第一行的前缀，后接摘要算法
+	private static final int TASK_THRESHOLD = 8;// 每个任务直接计算的最大文件数
+
+	/**
+	 * 计算目录下所有文件的摘要并写入清单文件
+	 * 
+	 * @param dir         目录
+	 * @param algorithm   摘要算法，见 {@link SecurityUtil#MD5} 等常量
+	 * @param parallelism 并行计算的线程数
+	 * @param manifest    清单文件，已存在时将被覆盖
+	 * @return 计算结果，所有成功计算的文件都记为新增
+	 * @throws IOException              清单文件写入失败
+	 * @throws IllegalArgumentException 线程数小于1或不支持的摘要算法
+	 */
+	public static Result build(File dir, String algorithm, int parallelism, File manifest) throws IOException {
+		SecurityUtil.messageDigest(algorithm); // 提前检查摘要算法
+		Result result = scan(dir, manifest, algorithm, Collections.emptyMap(), parallelism);
+		write(manifest, algorithm, result.getEntries());
+		return result;
+	}
+
+	/**
+	 * 按清单文件校验目录，大小和修改时间都没有变化的文件直接跳过，其它文件重新计算摘要
+	 * 
+	 * @param dir         目录
+	 * @param manifest    清单文件
+	 * @param parallelism 并行计算的线程数
+	 * @param update      是否使用校验结果更新清单文件
+	 * @return 校验结果
+	 * @throws IOException              清单文件读取、写入失败或格式错误
+	 * @throws IllegalArgumentException 线程数小于1或不支持的摘要算法
+	 */
+	public static Result verify(File dir, File manifest, int parallelism, boolean update) throws IOException {
+		Map<String, Entry> previous = new HashMap<>();
+		String algorithm = read(manifest, previous);
+		SecurityUtil.messageDigest(algorithm);
+		Result result = scan(dir, manifest, algorithm, previous, parallelism);
+		if (update)
+			write(manifest, algorithm, result.getEntries());
+		return result;
+	}
+
+	/**
+	 * 并行计算目录下所有文件的摘要，previous 中大小和修改时间相同的文件直接使用原结果，清单文件本身不参与计算
+	 */
+	private static Result scan(File dir, File manifest, String algorithm, Map<String, Entry> previous,
+			int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("线程数必须大于0：" + parallelism);
+
+		long start = System.nanoTime();
+		File exclude = manifest.getAbsoluteFile();
+		File[] files = Arrays.stream(FileUtil.getFiles(dir, null, true))
+				.filter(file -> !file.getAbsoluteFile().equals(exclude)).toArray(File[]::new);
+		Scan scan = new Scan(dir, files, algorithm, previous);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);// 有界的工作窃取线程池
+		try {
+			pool.invoke(new DigestTask(scan, 0, files.length));
+		} finally {
+			pool.shutdown();
+		}
+
+		Result result = new Result(algorithm);
+		Set<String> current = new HashSet<>();
+		for (int i = 0; i < files.length; i++) {
+			Entry entry = scan.entries[i];
+			String path = scan.paths[i];
+			Entry old = previous.get(path);
+			current.add(path);
+			if (scan.errors[i] != null) { // 计算失败时保留原结果
+				result.failed.add(path + ": " + scan.errors[i]);
+			} else if (entry == old) {
+				result.skipped++;
+			} else {
+				result.hashed++;
+				result.hashedBytes += entry.size;
+				if (old == null)
+					result.added.add(path);
+				else if (!old.hex.equals(entry.hex))
+					result.modified.add(path);
+			}
+			if (entry != null)
+				result.entries.add(entry);
+		}
+		for (String path : previous.keySet())
+			if (!current.contains(path))
+				result.removed.add(path);
+
+		result.entries.sort(Comparator.comparing(Entry::getPath));
+		Collections.sort(result.added);
+		Collections.sort(result.modified);
+		Collections.sort(result.removed);
+		Collections.sort(result.failed);
+		result.nanos = System.nanoTime() - start;
+		return result;
+	}
+
+	/**
+	 * 读取清单文件
+	 * 
+	 * @param entries 读取的文件记录，以相对路径为键值
+	 * @return 摘要算法
+	 */
+	private static String read(File manifest, Map<String, Entry> entries) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(manifest.toPath(), StandardCharsets.UTF_8)) {
+			String line = reader.readLine();
+			if (line == null || !line.startsWith(HEADER))
+				throw new IOException("清单文件缺少摘要算法：" + manifest);
+			String algorithm = line.substring(HEADER.length()).trim();
+
+			int lineNumber = 1;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isEmpty())
+					continue;
+				String[] fields = line.split(" ", 4);
+				if (fields.length < 4)
+					throw new IOException("清单文件格式错误：第" + lineNumber + "行");
+				try {
+					Entry entry = new Entry(fields[3], Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[0]);
+					entries.put(entry.path, entry);
+				} catch (NumberFormatException e) {
+					throw new IOException("清单文件格式错误：第" + lineNumber + "行", e);
+				}
+			}
+			return algorithm;
+		}
+	}
+
+	/**
+	 * 写入清单文件
+	 */
+	private static void write(File manifest, String algorithm, List<Entry> entries) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(manifest.toPath(), StandardCharsets.UTF_8)) {
+			writer.append(HEADER).append(algorithm).append('\n');
+			for (Entry entry : entries)
+				writer.append(entry.hex).append(' ').append(Long.toString(entry.size)).append(' ')
+						.append(Long.toString(entry.lastModified)).append(' ').append(entry.path).append('\n');
+		}
+	}
+
+	/**
+	 * 一次目录扫描的共享状态，各任务只写入自己负责的下标
+	 */
+	private static class Scan {
+		final Path base;
+		final File[] files;
+		final String algorithm;
+		final Map<String, Entry> previous;
+		final String[] paths;
+		final Entry[] entries;
+		final String[] errors;
+
+		Scan(File dir, File[] files, String algorithm, Map<String, Entry> previous) {
+			this.base = dir.getAbsoluteFile().toPath();
+			this.files = files;
+			this.algorithm = algorithm;
+			this.previous = previous;
+			this.paths = new String[files.length];
+			this.entries = new Entry[files.length];
+			this.errors = new String[files.length];
+		}
+
+		/**
+		 * 计算第 i 个文件的摘要
+		 */
+		void digest(int i) {
+			File file = files[i];
+			String path = base.relativize(file.getAbsoluteFile().toPath()).toString().replace(File.separatorChar, '/');
+			paths[i] = path;
+			if (path.indexOf('\n') >= 0 || path.indexOf('\r') >= 0) { // 清单按行读取，不能保存包含换行符的路径
+				errors[i] = "路径包含换行符，不能写入清单";
+				return;
+			}
+			long size = file.length();
+			long lastModified = file.lastModified();
+			Entry old = previous.get(path);
+
+			if (old != null && old.size == size && old.lastModified == lastModified) {
+				entries[i] = old;
+				return;
+			}
+			try {
+				entries[i] = new Entry(path, size, lastModified, SecurityUtil.digest(file, algorithm).getHex());
+			} catch (IOException e) {
+				entries[i] = old;
+				errors[i] = String.valueOf(e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * 按文件下标范围拆分的摘要计算任务
+	 */
+	private static class DigestTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Scan scan;
+		private final int from;
+		private final int to;
+
+		DigestTask(Scan scan, int from, int to) {
+			this.scan = scan;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= TASK_THRESHOLD) {
+				for (int i = from; i < to; i++)
+					scan.digest(i);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new DigestTask(scan, from, mid), new DigestTask(scan, mid, to));
+		}
+	}
+
+	/**
+	 * 清单中的文件记录
+	 */
+	public static final class Entry {
+		private final String path;
+		private final long size;
+		private final long lastModified;
+		private final String hex;
+
+		Entry(String path, long size, long lastModified, String hex) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.hex = hex;
+		}
+
+		/**
+		 * 相对路径，以 '/' 分隔
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * 文件大小
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * 修改时间毫秒值
+		 */
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		/**
+		 * 十六进制摘要
+		 */
+		public String getHex() {
+			return hex;
+		}
+
+		@Override
+		public String toString() {
+			return hex + " " + size + " " + lastModified + " " + path;
+		}
+	}
+
+	/**
+	 * 清单计算/校验结果
+	 */
+	public static final class Result {
+		private final String algorithm;
+		private final List<Entry> entries = new ArrayList<>();
+		private final List<String> added = new ArrayList<>();
+		private final List<String> modified = new ArrayList<>();
+		private final List<String> removed = new ArrayList<>();
+		private final List<String> failed = new ArrayList<>();
+		private int hashed;
+		private int skipped;
+		private long hashedBytes;
+		private long nanos;
+
+		Result(String algorithm) {
+			this.algorithm = algorithm;
+		}
+
+		/**
+		 * 摘要算法
+		 */
+		public String getAlgorithm() {
+			return algorithm;
+		}
+
+		/**
+		 * 当前所有文件记录，按路径排序
+		 */
+		public List<Entry> getEntries() {
+			return Collections.unmodifiableList(entries);
+		}
+
+		/**
+		 * 清单中没有的文件路径
+		 */
+		public List<String> getAdded() {
+			return Collections.unmodifiableList(added);
+		}
+
+		/**
+		 * 重新计算后摘要与清单不一致的文件路径
+		 */
+		public List<String> getModified() {
+			return Collections.unmodifiableList(modified);
+		}
+
+		/**
+		 * 清单中有但目录中已经不存在的文件路径
+		 */
+		public List<String> getRemoved() {
+			return Collections.unmodifiableList(removed);
+		}
+
+		/**
+		 * 计算失败的文件，格式为 "路径: 错误信息"
+		 */
+		public List<String> getFailed() {
+			return Collections.unmodifiableList(failed);
+		}
+
+		/**
+		 * 重新计算摘要的文件个数
+		 */
+		public int getHashed() {
+			return hashed;
+		}
+
+		/**
+		 * 大小和修改时间都没有变化而跳过的文件个数
+		 */
+		public int getSkipped() {
+			return skipped;
+		}
+
+		/**
+		 * 重新计算摘要的字节数
+		 */
+		public long getHashedBytes() {
+			return hashedBytes;
+		}
+
+		/**
+		 * 总耗时，单位纳秒
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * 摘要计算吞吐量，单位字节/秒
+		 */
+		public double getThroughput() {
+			return nanos == 0 ? 0 : hashedBytes * 1e9 / nanos;
+		}
+
+		/**
+		 * 校验是否通过：没有新增、修改、删除和计算失败的文件
+		 */
+		public boolean isUnchanged() {
+			return added.isEmpty() && modified.isEmpty() && removed.isEmpty() && failed.isEmpty();
+		}
+
+		@Override
+		public String toString() {
+			return algorithm + " hashed=" + hashed + " skipped=" + skipped + " added=" + added.size() + " modified="
+					+ modified.size() + " removed=" + removed.size() + " failed=" + failed.size() + " bytes="
+					+ hashedBytes + " " + DateUtil.convertMillisToString(nanos / 1_000_000);
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.sweetmanor.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 行政区划代码工具类：根据6位地址码查询省、市、县名称。
+ * 
+ * <pre>
+ * 	区划数据在第一次查询时从类路径下的 com/sweetmanor/utils/region.txt 加载，格式为每行“6位代码,名称”。
+ * 	加载后按代码前4位分块存储在基本类型数组中，查询时直接按下标定位，不创建任何对象。
+ * 	内置数据为 GB/T 2260 的完整代码表，包含全部省级、地级和县级区划；区划调整后按相同格式更新资源文件即可。
+ * </pre>
+ * 
+ * @version 1.0 2026-10-18
+ * @author ijlhjj
+ */
+public class RegionUtil {
+	private static final String RESOURCE = "/com/sweetmanor/utils/region.txt";// 区划数据资源文件
+
+	/**
+	 * 延迟加载的区划索引，第一次访问时由类加载机制保证线程安全地完成初始化
+	 */
+	private static class Index {
+		private static final int[] BLOCKS = new int[10000];// 代码前4位 → 块号（从1开始），0表示没有该前缀
+		private static final int[] NAME_INDEX;// (块号-1)*100 + 代码后2位 → 名称下标（从1开始），0表示没有该代码
+		private static final String[] NAMES;// 区划名称
+		private static final int[] CODES;// 全部区划代码，按文件顺序排列
+
+		static {
+			List<String> names = new ArrayList<>();
+			List<Integer> codes = new ArrayList<>();
+			List<int[]> blocks = new ArrayList<>();
+			try (InputStream in = RegionUtil.class.getResourceAsStream(RESOURCE)) {
+				if (in == null)
+					throw new IllegalStateException("找不到行政区划数据文件：" + RESOURCE);
+				BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+				String line;
+				while ((line = reader.readLine()) != null) {
+					line = line.trim();
+					if (line.isEmpty() || line.startsWith("#")) // 忽略空行和注释
+						continue;
+					int comma = line.indexOf(',');
+					int code = Integer.parseInt(line.substring(0, comma));
+					int prefix = code / 100;
+					if (BLOCKS[prefix] == 0) { // 新的4位前缀，分配一个100个元素的块
+						blocks.add(new int[100]);
+						BLOCKS[prefix] = blocks.size();
+					}
+					codes.add(code);
+					names.add(line.substring(comma + 1).trim());
+					blocks.get(BLOCKS[prefix] - 1)[code % 100] = names.size();
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			NAME_INDEX = new int[blocks.size() * 100];
+			for (int i = 0; i < blocks.size(); i++)
+				System.arraycopy(blocks.get(i), 0, NAME_INDEX, i * 100, 100);
+			NAMES = names.toArray(new String[0]);
+			CODES = codes.stream().mapToInt(Integer::intValue).toArray();
+		}
+
+		/**
+		 * 查询指定代码的名称，不存在时返回null
+		 */
+		static String get(int code) {
+			if (code < 0 || code >= 1_000_000)
+				return null;
+			int block = BLOCKS[code / 100];
+			if (block == 0)
+				return null;
+			int name = NAME_INDEX[(block - 1) * 100 + code % 100];
+			return name == 0 ? null : NAMES[name - 1];
+		}
+	}
+
+	/**
+	 * @return 区划数据中的全部6位地址码，按文件顺序排列，返回数组为副本
+	 */
+	public static int[] getCodes() {
+		return Index.CODES.clone();
+	}
+
+	/**
+	 * 获取地址码本身对应的区划名称
+	 * 
+	 * @param code 6位地址码，例：110102
+	 * @return 区划名称，例：西城区，区划数据中没有该代码时返回null
+	 */
+	public static String getRegion(int code) {
+		return Index.get(code);
+	}
+
+	/**
+	 * 获取地址码所属的省级区划名称
+	 * 
+	 * @param code 6位地址码，例：110102
+	 * @return 省级区划名称，例：北京市，区划数据中没有该代码时返回null
+	 */
+	public static String getProvince(int code) {
+		return Index.get(code / 10000 * 10000);
+	}
+
+	/**
+	 * 获取地址码所属的地级区划名称
+	 * 
+	 * @param code 6位地址码，例：330106
+	 * @return 地级区划名称，例：杭州市，区划数据中没有该代码时返回null
+	 */
+	public static String getCity(int code) {
+		if (code % 10000 < 100) // 省级代码没有地级区划
+			return null;
+		return Index.get(code / 100 * 100);
+	}
+
+	/**
+	 * 获取地址码对应的县级区划名称
+	 * 
+	 * @param code 6位地址码，例：110102
+	 * @return 县级区划名称，例：西城区，地址码不是县级代码或区划数据中没有该代码时返回null
+	 */
+	public static String getCounty(int code) {
+		if (code % 100 == 0) // 省级、地级代码没有县级区划
+			return null;
+		return Index.get(code);
+	}
+
+}
@@ -4,20 +4,52 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.SignatureException;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.security.spec.MGF1ParameterSpec;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
 
+import javax.crypto.AEADBadTagException;
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+import javax.crypto.spec.SecretKeySpec;
 
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 
 /**
@@ -29,6 +61,48 @@ import org.apache.commons.codec.digest.DigestUtils;
 public class SecurityUtil {
 	public static final String AES = "AES";// 对称加密
 	public static final String RSA = "RSA";// 非对称加密
+	public static final String MD5 = "MD5";// 信息摘要算法
+	public static final String SHA1 = "SHA-1";
+	public static final String SHA256 = "SHA-256";
+	public static final String SHA512 = "SHA-512";
+	public static final String SHA256_WITH_RSA = "SHA256withRSA";// 签名算法
+	public static final String SHA256_WITH_ECDSA = "SHA256withECDSA";
+
+	private static final int DIGEST_BUFFER_SIZE = 1 << 20;// 文件摘要直接缓冲区大小：1M
+	private static final long MAP_THRESHOLD = 1L << 26;// 超过该长度使用内存映射读取：64M
+	private static final int WINDOW_SIZE = 1 << 28;// 每次映射的最大字节数：256M
+	private static final int MIN_CHUNK_SIZE = 1 << 12;// 树形摘要的最小块大小：4K
+	private static final byte TREE_LEAF = 0;// 树形摘要块摘要的前缀标记
+	private static final byte TREE_NODE = 1;// 树形摘要根摘要的前缀标记
+	private static final String AES_CTR = "AES/CTR/NoPadding";// 流式文件加密算法
+	private static final String HMAC_SHA256 = "HmacSHA256";// 流式文件加密的认证算法
+	private static final byte[] STREAM_MAGIC = { 'S', 'M', 'A', 'E' };// 流式加密文件头标识
+	private static final byte STREAM_VERSION = 1;// 流式加密文件格式版本
+	private static final int IV_LENGTH = 16;
+	private static final int STREAM_HEADER_LENGTH = STREAM_MAGIC.length + 1 + IV_LENGTH;// 标识 + 版本 + IV
+	private static final int STREAM_TAG_LENGTH = 32;// HmacSHA256 认证标签长度
+	private static final int CIPHER_BUFFER_SIZE = 1 << 20;// 文件加密直接缓冲区大小：1M
+	private static final String RSA_OAEP = "RSA/ECB/OAEPPadding";// 数字信封密钥包装算法
+	private static final OAEPParameterSpec OAEP_SHA256 = new OAEPParameterSpec("SHA-256", "MGF1",
+			MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT);
+	private static final byte[] ENVELOPE_MAGIC = { 'S', 'M', 'A', 'V' };// 数字信封头标识
+	private static final byte ENVELOPE_VERSION = 1;// 数字信封格式版本
+	private static final String AES_GCM = "AES/GCM/NoPadding";// 分段文件加密算法
+	private static final byte[] SEGMENT_MAGIC = { 'S', 'M', 'A', 'S' };// 分段加密文件头标识
+	private static final byte SEGMENT_VERSION = 1;// 分段加密文件格式版本
+	private static final int GCM_NONCE_LENGTH = 12;
+	private static final int GCM_TAG_LENGTH = 16;
+	private static final int SEGMENT_HEADER_LENGTH = SEGMENT_MAGIC.length + 1 + 4 + 8 + GCM_NONCE_LENGTH;// 标识 + 版本 + 段大小 + 明文长度 + 基础 nonce
+	private static final int MAX_SEGMENT_SIZE = 1 << 26;// 最大段大小：64M
+	private static final SecureRandom RANDOM = new SecureRandom();
+	private static final int THREAD_CACHE_SIZE = 8;// 每个线程每类对象最多缓存的算法数，超出后不再缓存
+	private static final ThreadLocal<Map<String, Cipher>> CIPHERS = ThreadLocal.withInitial(HashMap::new);// 每个线程按算法复用的 Cipher
+	private static final ThreadLocal<Map<String, MessageDigest>> DIGESTS = ThreadLocal.withInitial(HashMap::new);// 每个线程按算法复用的 MessageDigest
+	private static final ThreadLocal<Map<String, Signature>> SIGNATURES = ThreadLocal.withInitial(HashMap::new);// 每个线程按算法复用的 Signature
+	private static final ThreadLocal<ByteBuffer> DIGEST_BUFFER = ThreadLocal
+			.withInitial(() -> ByteBuffer.allocateDirect(DIGEST_BUFFER_SIZE));// 每个线程复用一个直接缓冲区
+	private static final ThreadLocal<ByteBuffer[]> CIPHER_BUFFERS = ThreadLocal.withInitial(() -> new ByteBuffer[] {
+			ByteBuffer.allocateDirect(CIPHER_BUFFER_SIZE), ByteBuffer.allocateDirect(CIPHER_BUFFER_SIZE) });// 每个线程复用一对文件加密的输入、输出直接缓冲区
 
 	/**
 	 * md5信息摘要
@@ -42,7 +116,7 @@ public class SecurityUtil {
 	 */
 	public static String md5(File file) {
 		try {
-			return DigestUtils.md5Hex(new FileInputStream(file));
+			return digest(file, MD5).getHex();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -61,13 +135,189 @@ public class SecurityUtil {
 	 */
 	public static String sha(File file) {
 		try {
-			return DigestUtils.sha1Hex(new FileInputStream(file));
+			return digest(file, SHA1).getHex();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 		return null;
 	}
 
+	/**
+	 * 计算文件摘要：小文件使用直接缓冲区读取，超过64M的文件按256M窗口内存映射读取，文件通道使用后立即关闭
+	 * 
+	 * @param file      文件
+	 * @param algorithm 摘要算法：MD5、SHA-1、SHA-256、SHA-512 等 MessageDigest 支持的算法
+	 * @return 摘要结果，包括读取字节数和耗时
+	 * @throws IOException              文件读取失败
+	 * @throws IllegalArgumentException 不支持的摘要算法
+	 */
+	public static DigestResult digest(File file, String algorithm) throws IOException {
+		MessageDigest md = threadDigest(algorithm);
+		long start = System.nanoTime();
+		long bytes;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			bytes = update(md, channel, 0, Long.MAX_VALUE);
+		}
+		return new DigestResult(algorithm, md.digest(), bytes, System.nanoTime() - start);
+	}
+
+	/**
+	 * 使用文件通道中的指定范围更新摘要，按绝对位置读取，不改变通道的当前位置
+	 * 
+	 * @param md       信息摘要对象
+	 * @param channel  可读的文件通道
+	 * @param position 起始位置
+	 * @param length   读取长度，超出文件末尾的部分忽略
+	 * @return 实际读取的字节数
+	 * @throws IOException 文件读取失败
+	 */
+	public static long update(MessageDigest md, FileChannel channel, long position, long length) throws IOException {
+		length = Math.min(length, Math.max(0, channel.size() - position));
+		if (length >= MAP_THRESHOLD) {
+			for (long done = 0; done < length;) {
+				int size = (int) Math.min(WINDOW_SIZE, length - done);
+				md.update(channel.map(MapMode.READ_ONLY, position + done, size));
+				done += size;
+			}
+			return length;
+		}
+
+		ByteBuffer buffer = DIGEST_BUFFER.get();
+		long done = 0;
+		while (done < length) {
+			buffer.clear();
+			if (length - done < buffer.capacity())
+				buffer.limit((int) (length - done));
+			int n = channel.read(buffer, position + done);
+			if (n < 0) // 文件在读取过程中被截短
+				break;
+			buffer.flip();
+			md.update(buffer);
+			done += n;
+		}
+		return done;
+	}
+
+	/**
+	 * 分块计算大文件的树形摘要：文件按 chunkSize 切分，各块使用内存映射在 ForkJoinPool.commonPool() 中并行计算摘要。
+	 * 
+	 * <pre>
+	 * 	块摘要 = H(0x00 || 块内容)
+	 * 	根摘要 = H(0x01 || 块大小(4字节) || 文件长度(8字节) || 各块摘要按顺序连接)
+	 * </pre>
+	 * 
+	 * 块摘要和根摘要使用不同的前缀标记，根摘要包含块大小和文件长度，块摘要不能冒充根摘要，不同分块方式的结果也不会相同。
+	 * 
+	 * @param file      文件
+	 * @param algorithm 摘要算法
+	 * @param chunkSize 块大小，4K到256M之间
+	 * @return 树形摘要
+	 * @throws IOException              文件读取失败
+	 * @throws IllegalArgumentException 不支持的摘要算法、块大小不合法或块数超过 int 范围
+	 */
+	public static TreeHash treeHash(File file, String algorithm, int chunkSize) throws IOException {
+		if (chunkSize < MIN_CHUNK_SIZE || chunkSize > WINDOW_SIZE)
+			throw new IllegalArgumentException("块大小必须在" + MIN_CHUNK_SIZE + "到" + WINDOW_SIZE + "之间：" + chunkSize);
+		messageDigest(algorithm);
+
+		long start = System.nanoTime();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long length = channel.size();
+			long count = (length + chunkSize - 1) / chunkSize;
+			if (count > Integer.MAX_VALUE)
+				throw new IllegalArgumentException("块数超过上限：" + count);
+			byte[][] chunks = new byte[(int) count][];
+			hashChunks(channel, algorithm, chunkSize, chunks, 0, chunks.length);
+			return new TreeHash(algorithm, chunkSize, length, chunks, length, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * 重新计算文件指定块范围的摘要，其它块使用 previous 的结果，适用于文件局部修改后的快速更新
+	 * 
+	 * @param file      文件
+	 * @param previous  原树形摘要
+	 * @param fromChunk 起始块下标（包括）
+	 * @param toChunk   结束块下标（不包括）
+	 * @return 新的树形摘要
+	 * @throws IOException               文件读取失败或文件长度与 previous 不一致
+	 * @throws IndexOutOfBoundsException 块范围不合法
+	 */
+	public static TreeHash treeHash(File file, TreeHash previous, int fromChunk, int toChunk) throws IOException {
+		checkChunkRange(previous, fromChunk, toChunk);
+		long start = System.nanoTime();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() != previous.length)
+				throw new IOException("文件长度已改变：" + previous.length + " -> " + channel.size());
+			byte[][] chunks = previous.chunks.clone();
+			hashChunks(channel, previous.algorithm, previous.chunkSize, chunks, fromChunk, toChunk);
+			return new TreeHash(previous.algorithm, previous.chunkSize, previous.length, chunks,
+					previous.chunkLength(fromChunk, toChunk), System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * 校验文件指定块范围的摘要
+	 * 
+	 * @param file      文件
+	 * @param expected  期望的树形摘要
+	 * @param fromChunk 起始块下标（包括）
+	 * @param toChunk   结束块下标（不包括）
+	 * @return 摘要不一致的块下标，文件长度改变时返回范围内的全部下标
+	 * @throws IOException               文件读取失败
+	 * @throws IndexOutOfBoundsException 块范围不合法
+	 */
+	public static BitSet verifyChunks(File file, TreeHash expected, int fromChunk, int toChunk) throws IOException {
+		checkChunkRange(expected, fromChunk, toChunk);
+		BitSet mismatches = new BitSet();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() != expected.length) {
+				mismatches.set(fromChunk, toChunk);
+				return mismatches;
+			}
+			byte[][] chunks = new byte[expected.chunks.length][];
+			hashChunks(channel, expected.algorithm, expected.chunkSize, chunks, fromChunk, toChunk);
+			for (int i = fromChunk; i < toChunk; i++)
+				if (!MessageDigest.isEqual(chunks[i], expected.chunks[i]))
+					mismatches.set(i);
+		}
+		return mismatches;
+	}
+
+	/**
+	 * 块范围检查
+	 */
+	private static void checkChunkRange(TreeHash hash, int fromChunk, int toChunk) {
+		if (fromChunk < 0 || fromChunk > toChunk || toChunk > hash.chunks.length)
+			throw new IndexOutOfBoundsException(
+					"块范围不合法：[" + fromChunk + ", " + toChunk + ") 块数：" + hash.chunks.length);
+	}
+
+	/**
+	 * 并行计算 [fromChunk, toChunk) 范围内各块的摘要
+	 */
+	private static void hashChunks(FileChannel channel, String algorithm, int chunkSize, byte[][] chunks,
+			int fromChunk, int toChunk) throws IOException {
+		try {
+			ForkJoinPool.commonPool().invoke(new ChunkTask(channel, algorithm, chunkSize, chunks, fromChunk, toChunk));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * 创建信息摘要对象
+	 * 
+	 * @throws IllegalArgumentException 不支持的摘要算法
+	 */
+	static MessageDigest messageDigest(String algorithm) {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException("不支持的摘要算法：" + algorithm, e);
+		}
+	}
+
 	/**
 	 * aes加密
 	 * 
@@ -154,8 +404,7 @@ public class SecurityUtil {
 			return null;
 
 		try {
-			Cipher cipher = Cipher.getInstance(algorithm);// 创建加密、解密工具对象
-			cipher.init(isEncode, key);
+			Cipher cipher = threadCipher(algorithm, isEncode, key);// 当前线程复用的加密、解密工具对象
 			return cipher.doFinal(content);
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -165,25 +414,201 @@ public class SecurityUtil {
 	}
 
 	/**
-	 * aes加密文件
+	 * aes加密，与 {@link #aesEncode(String, SecretKey)} 结果相同，结果写入 output 复用的缓冲区
+	 * 
+	 * @param input  明文，读取全部剩余内容
+	 * @param output 密文输出缓冲区，剩余空间至少为 (input.remaining() / 16 + 1) * 16
+	 * @param key    密钥
+	 * @return 写入 output 的字节数
+	 * @throws ShortBufferException     output 剩余空间不足，input 和 output 不变
+	 * @throws GeneralSecurityException 密钥不合法
+	 */
+	public static int aesEncode(ByteBuffer input, ByteBuffer output, SecretKey key) throws GeneralSecurityException {
+		return encode(input, output, AES, key, Cipher.ENCRYPT_MODE);
+	}
+
+	/**
+	 * aes解密，结果写入 output 复用的缓冲区
+	 * 
+	 * @param input  密文，读取全部剩余内容
+	 * @param output 明文输出缓冲区，剩余空间至少为 input.remaining()
+	 * @param key    密钥
+	 * @return 写入 output 的字节数
+	 * @throws ShortBufferException     output 剩余空间不足，input 和 output 不变
+	 * @throws GeneralSecurityException 密钥错误或密文不合法
+	 */
+	public static int aesDecode(ByteBuffer input, ByteBuffer output, SecretKey key) throws GeneralSecurityException {
+		return encode(input, output, AES, key, Cipher.DECRYPT_MODE);
+	}
+
+	/**
+	 * 计算缓冲区剩余内容的摘要，使用当前线程复用的 MessageDigest
+	 * 
+	 * @param input     数据，读取全部剩余内容
+	 * @param algorithm 摘要算法
+	 * @return 摘要字节数组
+	 * @throws IllegalArgumentException 不支持的摘要算法
+	 */
+	public static byte[] digest(ByteBuffer input, String algorithm) {
+		MessageDigest md = threadDigest(algorithm);
+		md.update(input);
+		return md.digest();
+	}
+
+	/**
+	 * 数字签名，使用当前线程复用的 Signature
+	 * 
+	 * @param data       待签名数据
+	 * @param privateKey 私钥
+	 * @param algorithm  签名算法，例如 {@link #SHA256_WITH_RSA}、{@link #SHA256_WITH_ECDSA}
+	 * @return 签名
+	 * @throws GeneralSecurityException 不支持的算法或私钥不合法
+	 * @see SignatureService 批量异步签名
+	 */
+	public static byte[] sign(byte[] data, PrivateKey privateKey, String algorithm) throws GeneralSecurityException {
+		Signature signature = threadSignature(algorithm);
+		signature.initSign(privateKey);
+		signature.update(data);
+		return signature.sign();
+	}
+
+	/**
+	 * 验证数字签名，使用当前线程复用的 Signature
+	 * 
+	 * @param data      原始数据
+	 * @param sign      签名
+	 * @param publicKey 公钥
+	 * @param algorithm 签名算法
+	 * @return 签名是否正确，签名格式错误时返回false
+	 * @throws GeneralSecurityException 不支持的算法或公钥不合法
+	 */
+	public static boolean verify(byte[] data, byte[] sign, PublicKey publicKey, String algorithm)
+			throws GeneralSecurityException {
+		Signature signature = threadSignature(algorithm);
+		signature.initVerify(publicKey);
+		signature.update(data);
+		try {
+			return signature.verify(sign);
+		} catch (SignatureException e) { // 签名格式错误
+			return false;
+		}
+	}
+
+	/**
+	 * 获取当前线程复用的 Signature，调用方必须重新 initSign 或 initVerify
+	 */
+	private static Signature threadSignature(String algorithm) throws NoSuchAlgorithmException {
+		Map<String, Signature> signatures = SIGNATURES.get();
+		String name = cacheName(algorithm);
+		Signature signature = signatures.get(name);
+		if (signature == null) {
+			signature = Signature.getInstance(algorithm);
+			if (signatures.size() < THREAD_CACHE_SIZE)
+				signatures.put(name, signature);
+		}
+		return signature;
+	}
+
+	/**
+	 * 缓冲区加密解密公共方法，使用当前线程复用的 Cipher
+	 */
+	private static int encode(ByteBuffer input, ByteBuffer output, String transformation, Key key, int mode)
+			throws GeneralSecurityException {
+		return threadCipher(transformation, mode, key).doFinal(input, output);
+	}
+
+	/**
+	 * 获取当前线程复用的 Cipher，调用方必须重新 init。<br />
+	 * 复用的对象只能在当前调用中使用，不能保存或传递给其它线程。
+	 */
+	static Cipher threadCipher(String transformation) throws GeneralSecurityException {
+		Map<String, Cipher> ciphers = CIPHERS.get();
+		String name = cacheName(transformation);
+		Cipher cipher = ciphers.get(name);
+		if (cipher == null) {
+			cipher = Cipher.getInstance(transformation);
+			if (ciphers.size() < THREAD_CACHE_SIZE)
+				ciphers.put(name, cipher);
+		}
+		return cipher;
+	}
+
+	/**
+	 * 获取当前线程复用的 Cipher 并使用指定密钥和模式初始化。<br />
+	 * 每次调用都重新 init，缓存中不保存密钥的引用，异常后 Cipher 的状态在下次 init 时恢复。
+	 */
+	static Cipher threadCipher(String transformation, int mode, Key key) throws GeneralSecurityException {
+		Cipher cipher = threadCipher(transformation);
+		cipher.init(mode, key);
+		return cipher;
+	}
+
+	/**
+	 * 线程缓存使用的算法名：算法名不区分大小写，同一算法只缓存一个对象
+	 */
+	private static String cacheName(String algorithm) {
+		return algorithm.toUpperCase(Locale.ROOT);
+	}
+
+	/**
+	 * 获取当前线程复用的 MessageDigest，返回前已经 reset
+	 * 
+	 * @throws IllegalArgumentException 不支持的摘要算法
+	 */
+	static MessageDigest threadDigest(String algorithm) {
+		Map<String, MessageDigest> digests = DIGESTS.get();
+		String name = cacheName(algorithm);
+		MessageDigest md = digests.get(name);
+		if (md == null) {
+			md = messageDigest(algorithm);
+			if (digests.size() < THREAD_CACHE_SIZE)
+				digests.put(name, md);
+		} else {
+			md.reset();
+		}
+		return md;
+	}
+
+	/**
+	 * 释放当前线程复用的 Cipher、MessageDigest、Signature 和文件处理的直接缓冲区。每个线程每类对象最多缓存8个算法，
+	 * 复用的 Cipher 和 Signature 内部仍保留最近一次初始化的密钥，线程不再处理加密任务时可以调用本方法。
+	 */
+	public static void releaseThreadCache() {
+		CIPHERS.remove();
+		DIGESTS.remove();
+		SIGNATURES.remove();
+		DIGEST_BUFFER.remove();
+		CIPHER_BUFFERS.remove();
+	}
+
+	/**
+	 * aes加密文件，使用 {@link #encryptFile(File, File, SecretKey)} 的格式
 	 * 
 	 * @param srcFile    待加密文件路径
 	 * @param targetFile 加密文件存储路径
 	 * @param key        密钥
 	 */
 	public static void aesEncode(String srcFile, String targetFile, SecretKey key) {
-		encode(srcFile, targetFile, AES, key, Cipher.ENCRYPT_MODE);
+		try {
+			encryptFile(new File(srcFile), new File(targetFile), key);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
 	}
 
 	/**
-	 * aes解密文件
+	 * aes解密文件，认证失败时不保留解密文件
 	 * 
 	 * @param srcFile    待解密文件路径
 	 * @param targetFile 解密后文件存储路径
 	 * @param key        密钥
 	 */
 	public static void aesDecode(String srcFile, String targetFile, SecretKey key) {
-		encode(srcFile, targetFile, AES, key, Cipher.DECRYPT_MODE);
+		try {
+			decryptFile(new File(srcFile), new File(targetFile), key);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
 	}
 
 	/**
@@ -269,12 +694,544 @@ public class SecurityUtil {
 		}
 	}
 
+	/**
+	 * 流式加密文件：使用 AES/CTR 加密，HmacSHA256 对文件头和密文认证（先加密后认证）。<br />
+	 * 加密密钥和认证密钥由 key 经 HmacSHA256 派生，文件格式为：
+	 * 
+	 * <pre>
+	 * 		"SMAE" | 版本(1字节) | IV(16字节) | 密文（与明文等长） | 认证标签(32字节)
+	 * </pre>
+	 * 
+	 * @param src    明文文件
+	 * @param target 加密文件，已存在时将被覆盖
+	 * @param key    AES密钥
+	 * @return 处理的明文字节数和耗时
+	 * @throws IOException              文件读写失败
+	 * @throws GeneralSecurityException 密钥不合法
+	 */
+	public static CipherResult encryptFile(File src, File target, SecretKey key)
+			throws IOException, GeneralSecurityException {
+		long start = System.nanoTime();
+		long bytes;
+		try (FileChannel in = FileChannel.open(src.toPath(), StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE,
+						StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			bytes = encryptStream(in, out, key);
+		}
+		return new CipherResult(bytes, System.nanoTime() - start);
+	}
+
+	/**
+	 * 流式解密 {@link #encryptFile(File, File, SecretKey)} 生成的文件。<br />
+	 * 解密与认证同时进行，认证失败时抛出 AEADBadTagException；认证失败或读写失败时都删除已写出的解密文件。
+	 * 
+	 * @param src    加密文件
+	 * @param target 解密文件，已存在时将被覆盖
+	 * @param key    AES密钥
+	 * @return 处理的明文字节数和耗时
+	 * @throws IOException              文件读写失败或文件格式错误
+	 * @throws AEADBadTagException      认证失败：密钥错误或文件被篡改
+	 * @throws GeneralSecurityException 密钥不合法
+	 */
+	public static CipherResult decryptFile(File src, File target, SecretKey key)
+			throws IOException, GeneralSecurityException {
+		long start = System.nanoTime();
+		long bytes;
+		try (FileChannel in = FileChannel.open(src.toPath(), StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE,
+						StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			bytes = decryptStream(in, 0, out, key, src);
+		} catch (IOException | GeneralSecurityException e) { // 不保留未完整认证的明文
+			Files.deleteIfExists(target.toPath());
+			throw e;
+		}
+		return new CipherResult(bytes, System.nanoTime() - start);
+	}
+
+	/**
+	 * 把 in 从当前位置到末尾的内容按流式加密格式写入 out 的当前位置
+	 * 
+	 * @return 处理的明文字节数
+	 */
+	private static long encryptStream(FileChannel in, FileChannel out, SecretKey key)
+			throws IOException, GeneralSecurityException {
+		byte[] iv = new byte[IV_LENGTH];
+		RANDOM.nextBytes(iv);
+		SecretKey[] keys = deriveStreamKeys(key);
+		Cipher cipher = Cipher.getInstance(AES_CTR);
+		cipher.init(Cipher.ENCRYPT_MODE, keys[0], new IvParameterSpec(iv));
+		Mac mac = Mac.getInstance(HMAC_SHA256);
+		mac.init(keys[1]);
+
+		ByteBuffer header = ByteBuffer.allocate(STREAM_HEADER_LENGTH);
+		header.put(STREAM_MAGIC).put(STREAM_VERSION).put(iv).flip();
+		mac.update(header.duplicate());
+		writeFully(out, header);
+		long bytes = transform(in, out, in.size() - in.position(), cipher, mac, true);
+		writeFully(out, ByteBuffer.wrap(mac.doFinal()));
+		return bytes;
+	}
+
+	/**
+	 * 解密 in 从 offset 开始到末尾的流式加密内容，写入 out 的当前位置
+	 * 
+	 * @return 处理的明文字节数
+	 * @throws AEADBadTagException 认证失败，out 中已写出未认证的内容
+	 */
+	private static long decryptStream(FileChannel in, long offset, FileChannel out, SecretKey key, File src)
+			throws IOException, GeneralSecurityException {
+		SecretKey[] keys = deriveStreamKeys(key);
+		Mac mac = Mac.getInstance(HMAC_SHA256);
+		mac.init(keys[1]);
+
+		long size = in.size();
+		if (size - offset < STREAM_HEADER_LENGTH + STREAM_TAG_LENGTH)
+			throw new IOException("不是有效的加密文件：" + src);
+		ByteBuffer header = readFully(in, offset, STREAM_HEADER_LENGTH);
+		byte[] iv = readStreamHeader(header);
+		if (iv == null)
+			throw new IOException("不是有效的加密文件：" + src);
+		header.rewind();
+		mac.update(header);
+
+		Cipher cipher = Cipher.getInstance(AES_CTR);
+		cipher.init(Cipher.DECRYPT_MODE, keys[0], new IvParameterSpec(iv));
+		in.position(offset + STREAM_HEADER_LENGTH);
+		long bytes = transform(in, out, size - offset - STREAM_HEADER_LENGTH - STREAM_TAG_LENGTH, cipher, mac,
+				false);
+		byte[] tag = new byte[STREAM_TAG_LENGTH];
+		readFully(in, size - STREAM_TAG_LENGTH, STREAM_TAG_LENGTH).get(tag);
+		if (!MessageDigest.isEqual(mac.doFinal(), tag))
+			throw new AEADBadTagException("认证失败，密钥错误或文件已被修改：" + src);
+		return bytes;
+	}
+
+	/**
+	 * 按流式加密格式加密 content，写入 out 的 offset 位置，共写入 content.length + 53 字节
+	 */
+	private static void encryptStream(byte[] content, SecretKey key, byte[] out, int offset)
+			throws GeneralSecurityException {
+		byte[] iv = new byte[IV_LENGTH];
+		RANDOM.nextBytes(iv);
+		SecretKey[] keys = deriveStreamKeys(key);
+		ByteBuffer.wrap(out, offset, STREAM_HEADER_LENGTH).put(STREAM_MAGIC).put(STREAM_VERSION).put(iv);
+
+		Cipher cipher = threadCipher(AES_CTR);
+		cipher.init(Cipher.ENCRYPT_MODE, keys[0], new IvParameterSpec(iv));
+		cipher.doFinal(content, 0, content.length, out, offset + STREAM_HEADER_LENGTH);
+		Mac mac = Mac.getInstance(HMAC_SHA256);
+		mac.init(keys[1]);
+		mac.update(out, offset, STREAM_HEADER_LENGTH + content.length);
+		mac.doFinal(out, offset + STREAM_HEADER_LENGTH + content.length);
+	}
+
+	/**
+	 * 解密 data 从 offset 开始到末尾的流式加密内容，先认证后解密
+	 * 
+	 * @throws AEADBadTagException      认证失败
+	 * @throws IllegalArgumentException 格式错误
+	 */
+	private static byte[] decryptStream(byte[] data, int offset, SecretKey key) throws GeneralSecurityException {
+		int length = data.length - offset - STREAM_HEADER_LENGTH - STREAM_TAG_LENGTH;
+		byte[] iv = length < 0 ? null : readStreamHeader(ByteBuffer.wrap(data, offset, STREAM_HEADER_LENGTH));
+		if (iv == null)
+			throw new IllegalArgumentException("不是有效的加密数据");
+		SecretKey[] keys = deriveStreamKeys(key);
+		Mac mac = Mac.getInstance(HMAC_SHA256);
+		mac.init(keys[1]);
+		mac.update(data, offset, STREAM_HEADER_LENGTH + length);
+		byte[] tag = Arrays.copyOfRange(data, data.length - STREAM_TAG_LENGTH, data.length);
+		if (!MessageDigest.isEqual(mac.doFinal(), tag))
+			throw new AEADBadTagException("认证失败，密钥错误或数据已被修改");
+
+		Cipher cipher = threadCipher(AES_CTR);
+		cipher.init(Cipher.DECRYPT_MODE, keys[0], new IvParameterSpec(iv));
+		return cipher.doFinal(data, offset + STREAM_HEADER_LENGTH, length);
+	}
+
+	/**
+	 * 检查流式加密文件头
+	 * 
+	 * @return IV，格式错误时返回null
+	 */
+	private static byte[] readStreamHeader(ByteBuffer header) {
+		byte[] magic = new byte[STREAM_MAGIC.length];
+		header.get(magic);
+		if (!Arrays.equals(magic, STREAM_MAGIC) || header.get() != STREAM_VERSION)
+			return null;
+		byte[] iv = new byte[IV_LENGTH];
+		header.get(iv);
+		return iv;
+	}
+
+	/**
+	 * 从 in 的当前位置读取 length 字节，使用 cipher.update 处理后写入 out，同时使用密文更新 mac。<br />
+	 * cipher 为 AES/CTR 流密码，输出与输入等长，输入、输出使用当前线程复用的一对直接缓冲区。
+	 * 
+	 * @param encrypt true 时认证输出（密文），false 时认证输入（密文）
+	 * @return 处理的字节数
+	 */
+	private static long transform(FileChannel in, FileChannel out, long length, Cipher cipher, Mac mac,
+			boolean encrypt) throws IOException, GeneralSecurityException {
+		ByteBuffer[] buffers = CIPHER_BUFFERS.get();
+		ByteBuffer input = buffers[0];
+		ByteBuffer output = buffers[1];
+		long done = 0;
+		while (done < length) {
+			input.clear();
+			if (length - done < input.capacity())
+				input.limit((int) (length - done));
+			int n = in.read(input);
+			if (n < 0)
+				throw new IOException("文件在处理过程中被截短");
+			input.flip();
+			if (!encrypt) {
+				mac.update(input);
+				input.rewind();
+			}
+			output.clear();
+			cipher.update(input, output);
+			output.flip();
+			if (encrypt) {
+				mac.update(output);
+				output.rewind();
+			}
+			writeFully(out, output);
+			done += n;
+		}
+		byte[] last = cipher.doFinal(); // CTR 模式没有剩余数据，保持 Cipher 状态完整
+		if (last.length > 0) {
+			if (encrypt)
+				mac.update(last);
+			writeFully(out, ByteBuffer.wrap(last));
+		}
+		return done;
+	}
+
+	/**
+	 * 分段加密文件：文件按 segmentSize 切分，每段使用 AES/GCM 独立加密，在 ForkJoinPool.commonPool() 中按绝对位置并行读写。<br />
+	 * 每段的 nonce 为基础 nonce 与段下标异或的结果，文件头作为每段的附加认证数据，段的顺序、截短和文件头的修改都会导致认证失败。
+	 * 文件格式为：
+	 * 
+	 * <pre>
+	 * 		"SMAS" | 版本(1字节) | 段大小(4字节) | 明文长度(8字节) | 基础nonce(12字节) | 段0密文+标签 | 段1密文+标签 | ...
+	 * </pre>
+	 * 
+	 * 每段密文与明文等长，后接16字节认证标签；空文件也包含一个空段。
+	 * 
+	 * @param src         明文文件
+	 * @param target      加密文件，已存在时将被覆盖
+	 * @param key         AES密钥
+	 * @param segmentSize 段大小，不能超过64M
+	 * @return 处理的明文字节数和耗时
+	 * @throws IOException              文件读写失败
+	 * @throws GeneralSecurityException 密钥不合法
+	 * @throws IllegalArgumentException 段大小不合法或段数超过 int 范围
+	 */
+	public static CipherResult encryptSegmented(File src, File target, SecretKey key, int segmentSize)
+			throws IOException, GeneralSecurityException {
+		if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE)
+			throw new IllegalArgumentException("段大小必须在1到" + MAX_SEGMENT_SIZE + "之间：" + segmentSize);
+		long start = System.nanoTime();
+		try (FileChannel in = FileChannel.open(src.toPath(), StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE,
+						StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			long length = in.size();
+			byte[] nonce = new byte[GCM_NONCE_LENGTH];
+			RANDOM.nextBytes(nonce);
+			ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_LENGTH);
+			header.put(SEGMENT_MAGIC).put(SEGMENT_VERSION).putInt(segmentSize).putLong(length).put(nonce);
+			Segments segments = new Segments(header.array(), key, true);
+			writeFully(out, ByteBuffer.wrap(segments.header));
+			segments.invoke(in, out, 0, segments.count);
+			return new CipherResult(length, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * 并行解密 {@link #encryptSegmented(File, File, SecretKey, int)} 生成的文件，认证失败或读写失败时删除已写出的解密文件
+	 * 
+	 * @param src    加密文件
+	 * @param target 解密文件，已存在时将被覆盖
+	 * @param key    AES密钥
+	 * @return 处理的明文字节数和耗时
+	 * @throws IOException              文件读写失败或文件格式错误
+	 * @throws AEADBadTagException      认证失败：密钥错误或文件被篡改
+	 * @throws GeneralSecurityException 密钥不合法
+	 */
+	public static CipherResult decryptSegmented(File src, File target, SecretKey key)
+			throws IOException, GeneralSecurityException {
+		long start = System.nanoTime();
+		Segments segments;
+		try (FileChannel in = FileChannel.open(src.toPath(), StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE,
+						StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			segments = readSegments(in, src, key);
+			segments.invoke(in, out, 0, segments.count);
+		} catch (IOException | GeneralSecurityException e) { // 不保留未完整认证的明文
+			Files.deleteIfExists(target.toPath());
+			throw e;
+		}
+		return new CipherResult(segments.length, System.nanoTime() - start);
+	}
+
+	/**
+	 * 随机访问解密分段加密文件中的一段
+	 * 
+	 * @param src     加密文件
+	 * @param key     AES密钥
+	 * @param segment 段下标，从0开始
+	 * @return 该段的明文
+	 * @throws IOException               文件读取失败或文件格式错误
+	 * @throws AEADBadTagException       认证失败：密钥错误或文件被篡改
+	 * @throws GeneralSecurityException  密钥不合法
+	 * @throws IndexOutOfBoundsException 段下标超出范围
+	 */
+	public static byte[] decryptSegment(File src, SecretKey key, int segment)
+			throws IOException, GeneralSecurityException {
+		try (FileChannel in = FileChannel.open(src.toPath(), StandardOpenOption.READ)) {
+			Segments segments = readSegments(in, src, key);
+			if (segment < 0 || segment >= segments.count)
+				throw new IndexOutOfBoundsException("段下标超出范围：" + segment + " 段数：" + segments.count);
+			ByteBuffer plain = segments.process(in, null, segment, segments.borrow());
+			byte[] result = new byte[plain.remaining()];
+			plain.get(result);
+			return result;
+		}
+	}
+
+	/**
+	 * 获取分段加密文件的段数
+	 * 
+	 * @throws IOException 文件读取失败或文件格式错误
+	 */
+	public static int getSegmentCount(File src) throws IOException {
+		try (FileChannel in = FileChannel.open(src.toPath(), StandardOpenOption.READ)) {
+			return readSegments(in, src, null).count;
+		}
+	}
+
+	/**
+	 * 读取并检查分段加密文件头
+	 */
+	private static Segments readSegments(FileChannel in, File src, SecretKey key) throws IOException {
+		if (in.size() < SEGMENT_HEADER_LENGTH)
+			throw new IOException("不是有效的分段加密文件：" + src);
+		ByteBuffer header = readFully(in, 0, SEGMENT_HEADER_LENGTH);
+		byte[] magic = new byte[SEGMENT_MAGIC.length];
+		header.get(magic);
+		if (!Arrays.equals(magic, SEGMENT_MAGIC) || header.get() != SEGMENT_VERSION)
+			throw new IOException("不是有效的分段加密文件：" + src);
+		int segmentSize = header.getInt();
+		long length = header.getLong();
+		if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE || length < 0)
+			throw new IOException("分段加密文件头错误：" + src);
+		Segments segments = new Segments(header.array(), key, false);
+		if (in.size() != segments.encryptedLength())
+			throw new IOException("分段加密文件长度错误：" + in.size() + "，应为：" + segments.encryptedLength());
+		return segments;
+	}
+
+	/**
+	 * 数字信封加密：随机生成256位AES密钥，使用 RSA-OAEP(SHA-256) 包装后放在文件头，内容使用
+	 * {@link #encryptFile(File, File, SecretKey)} 的流式格式加密，不受RSA密钥长度限制。格式为：
+	 * 
+	 * <pre>
+	 * 		"SMAV" | 版本(1字节) | 包装密钥长度(2字节) | 包装密钥 | 流式加密内容
+	 * </pre>
+	 * 
+	 * @param content   明文
+	 * @param publicKey 接收方公钥
+	 * @return 信封字节数组
+	 * @throws GeneralSecurityException 公钥不合法
+	 */
+	public static byte[] sealEnvelope(byte[] content, RSAPublicKey publicKey) throws GeneralSecurityException {
+		SecretKey key = newEnvelopeKey();
+		byte[] wrapped = wrapEnvelopeKey(key, publicKey);
+		int headerLength = ENVELOPE_MAGIC.length + 3 + wrapped.length;
+		byte[] envelope = new byte[headerLength + STREAM_HEADER_LENGTH + content.length + STREAM_TAG_LENGTH];
+		ByteBuffer.wrap(envelope).put(ENVELOPE_MAGIC).put(ENVELOPE_VERSION).putShort((short) wrapped.length)
+				.put(wrapped);
+		encryptStream(content, key, envelope, headerLength);
+		return envelope;
+	}
+
+	/**
+	 * 数字信封解密
+	 * 
+	 * @param envelope   {@link #sealEnvelope(byte[], RSAPublicKey)} 生成的信封
+	 * @param privateKey 接收方私钥
+	 * @return 明文
+	 * @throws AEADBadTagException      认证失败：内容被篡改
+	 * @throws GeneralSecurityException 私钥错误或不合法
+	 * @throws IllegalArgumentException 信封格式错误
+	 */
+	public static byte[] openEnvelope(byte[] envelope, RSAPrivateKey privateKey) throws GeneralSecurityException {
+		ByteBuffer header = ByteBuffer.wrap(envelope);
+		byte[] wrapped = readEnvelopeHeader(header, envelope.length);
+		if (wrapped == null)
+			throw new IllegalArgumentException("不是有效的数字信封");
+		return decryptStream(envelope, header.position(), unwrapEnvelopeKey(wrapped, privateKey));
+	}
+
+	/**
+	 * 数字信封加密文件，格式与 {@link #sealEnvelope(byte[], RSAPublicKey)} 相同，内容使用直接缓冲区流式加密
+	 * 
+	 * @param src       明文文件
+	 * @param target    信封文件，已存在时将被覆盖
+	 * @param publicKey 接收方公钥
+	 * @return 处理的明文字节数和耗时
+	 * @throws IOException              文件读写失败
+	 * @throws GeneralSecurityException 公钥不合法
+	 */
+	public static CipherResult sealEnvelope(File src, File target, RSAPublicKey publicKey)
+			throws IOException, GeneralSecurityException {
+		long start = System.nanoTime();
+		SecretKey key = newEnvelopeKey();
+		byte[] wrapped = wrapEnvelopeKey(key, publicKey);
+		ByteBuffer header = ByteBuffer.allocate(ENVELOPE_MAGIC.length + 3 + wrapped.length);
+		header.put(ENVELOPE_MAGIC).put(ENVELOPE_VERSION).putShort((short) wrapped.length).put(wrapped).flip();
+		long bytes;
+		try (FileChannel in = FileChannel.open(src.toPath(), StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE,
+						StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			writeFully(out, header);
+			bytes = encryptStream(in, out, key);
+		}
+		return new CipherResult(bytes, System.nanoTime() - start);
+	}
+
+	/**
+	 * 数字信封解密文件，认证失败或读写失败时删除已写出的解密文件
+	 * 
+	 * @param src        {@link #sealEnvelope(File, File, RSAPublicKey)} 生成的信封文件
+	 * @param target     解密文件，已存在时将被覆盖
+	 * @param privateKey 接收方私钥
+	 * @return 处理的明文字节数和耗时
+	 * @throws IOException              文件读写失败或文件格式错误
+	 * @throws AEADBadTagException      认证失败：内容被篡改
+	 * @throws GeneralSecurityException 私钥错误或不合法
+	 */
+	public static CipherResult openEnvelope(File src, File target, RSAPrivateKey privateKey)
+			throws IOException, GeneralSecurityException {
+		long start = System.nanoTime();
+		long bytes;
+		try (FileChannel in = FileChannel.open(src.toPath(), StandardOpenOption.READ)) {
+			int prefix = ENVELOPE_MAGIC.length + 3;
+			if (in.size() < prefix)
+				throw new IOException("不是有效的数字信封：" + src);
+			int wrappedLength = readFully(in, ENVELOPE_MAGIC.length + 1, 2).getShort() & 0xFFFF;
+			ByteBuffer header = readFully(in, 0, (int) Math.min(in.size(), prefix + wrappedLength));
+			byte[] wrapped = readEnvelopeHeader(header, in.size());
+			if (wrapped == null)
+				throw new IOException("不是有效的数字信封：" + src);
+			SecretKey key = unwrapEnvelopeKey(wrapped, privateKey); // 私钥错误时不创建目标文件
+			try (FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE,
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				bytes = decryptStream(in, header.position(), out, key, src);
+			} catch (IOException | GeneralSecurityException e) { // 不保留未完整认证的明文
+				Files.deleteIfExists(target.toPath());
+				throw e;
+			}
+		}
+		return new CipherResult(bytes, System.nanoTime() - start);
+	}
+
+	/**
+	 * 检查数字信封头
+	 * 
+	 * @param header 从信封开始位置读取的缓冲区，返回时位置在流式加密内容的开始
+	 * @param size   信封总长度
+	 * @return 包装的AES密钥，格式错误时返回null
+	 */
+	private static byte[] readEnvelopeHeader(ByteBuffer header, long size) {
+		if (header.remaining() < ENVELOPE_MAGIC.length + 3)
+			return null;
+		byte[] magic = new byte[ENVELOPE_MAGIC.length];
+		header.get(magic);
+		if (!Arrays.equals(magic, ENVELOPE_MAGIC) || header.get() != ENVELOPE_VERSION)
+			return null;
+		int wrappedLength = header.getShort() & 0xFFFF;
+		if (wrappedLength > header.remaining()
+				|| size < header.position() + wrappedLength + STREAM_HEADER_LENGTH + STREAM_TAG_LENGTH)
+			return null;
+		byte[] wrapped = new byte[wrappedLength];
+		header.get(wrapped);
+		return wrapped;
+	}
+
+	/**
+	 * 生成数字信封使用的256位AES密钥
+	 */
+	private static SecretKey newEnvelopeKey() {
+		byte[] raw = new byte[32];
+		RANDOM.nextBytes(raw);
+		return new SecretKeySpec(raw, AES);
+	}
+
+	/**
+	 * 使用 RSA-OAEP(SHA-256) 包装AES密钥
+	 */
+	private static byte[] wrapEnvelopeKey(SecretKey key, RSAPublicKey publicKey) throws GeneralSecurityException {
+		Cipher cipher = threadCipher(RSA_OAEP);
+		cipher.init(Cipher.WRAP_MODE, publicKey, OAEP_SHA256);
+		return cipher.wrap(key);
+	}
+
+	/**
+	 * 使用 RSA-OAEP(SHA-256) 解包AES密钥
+	 */
+	private static SecretKey unwrapEnvelopeKey(byte[] wrapped, RSAPrivateKey privateKey)
+			throws GeneralSecurityException {
+		Cipher cipher = threadCipher(RSA_OAEP);
+		cipher.init(Cipher.UNWRAP_MODE, privateKey, OAEP_SHA256);
+		return (SecretKey) cipher.unwrap(wrapped, AES, Cipher.SECRET_KEY);
+	}
+
+	/**
+	 * 由 AES 密钥派生流式加密使用的加密密钥和认证密钥
+	 * 
+	 * @return [加密密钥, 认证密钥]
+	 */
+	private static SecretKey[] deriveStreamKeys(SecretKey key) throws GeneralSecurityException {
+		byte[] raw = key.getEncoded();
+		if (raw == null || (raw.length != 16 && raw.length != 24 && raw.length != 32))
+			throw new InvalidKeyException("AES密钥长度必须为128、192或256位");
+		Mac kdf = Mac.getInstance(HMAC_SHA256);
+		kdf.init(new SecretKeySpec(raw, HMAC_SHA256));
+		byte[] encKey = kdf.doFinal("SMAE-ENC".getBytes(StandardCharsets.US_ASCII));
+		byte[] macKey = kdf.doFinal("SMAE-MAC".getBytes(StandardCharsets.US_ASCII));
+		return new SecretKey[] { new SecretKeySpec(encKey, 0, raw.length, AES),
+				new SecretKeySpec(macKey, HMAC_SHA256) };
+	}
+
+	/**
+	 * 从指定位置读取 length 字节
+	 */
+	private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining())
+			if (channel.read(buffer, position + buffer.position()) < 0)
+				throw new IOException("文件长度不足");
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * 写出缓冲区的全部剩余内容
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+	}
+
 	/**
 	 * 生成对称密钥的方法
 	 * 
 	 * @param algorithm 生成密钥的算法
 	 * @param filename  密钥保存的文件名
 	 * @return 成功返回true，失败返回false
+	 * @see KeyFileUtil#createSecretKey(String, int, File) 使用原始字节保存密钥
 	 */
 	public static boolean createSecretKey(String algorithm, String filename) {
 		try {
@@ -297,9 +1254,23 @@ public class SecurityUtil {
 	 * @return 成功返回true，失败返回false
 	 */
 	public static boolean createKeyPair(String algorithm, String privateKeyFile, String publicKeyFile) {
+		return createKeyPair(algorithm, 1024, privateKeyFile, publicKeyFile);// 密钥大小初始化为1024位
+	}
+
+	/**
+	 * 生成指定长度非对称密钥的方法
+	 * 
+	 * @param algorithm      生成密钥的算法
+	 * @param keySize        密钥长度（位）
+	 * @param privateKeyFile 私钥保存路径
+	 * @param publicKeyFile  公钥保存路径
+	 * @return 成功返回true，失败返回false
+	 * @see KeyFileUtil#createKeyPair(String, int, File, File) 使用 PKCS#8/X.509 DER 保存密钥
+	 */
+	public static boolean createKeyPair(String algorithm, int keySize, String privateKeyFile, String publicKeyFile) {
 		try {
 			KeyPairGenerator keyPairGen = KeyPairGenerator.getInstance(algorithm);// 创建非对称密钥生成器
-			keyPairGen.initialize(1024);// 密钥大小初始化为1024位
+			keyPairGen.initialize(keySize);
 
 			KeyPair keyPair = keyPairGen.generateKeyPair();// 创建非对称密钥
 			PrivateKey privateKey = keyPair.getPrivate();// 获取私钥
@@ -315,4 +1286,443 @@ public class SecurityUtil {
 		return false;
 	}
 
+	/**
+	 * 文件摘要结果，包括读取字节数、耗时和吞吐量
+	 */
+	public static final class DigestResult {
+		private final String algorithm;
+		private final byte[] digest;
+		private final long bytes;
+		private final long nanos;
+
+		DigestResult(String algorithm, byte[] digest, long bytes, long nanos) {
+			this.algorithm = algorithm;
+			this.digest = digest;
+			this.bytes = bytes;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * 摘要算法
+		 */
+		public String getAlgorithm() {
+			return algorithm;
+		}
+
+		/**
+		 * 摘要字节数组的副本
+		 */
+		public byte[] getDigest() {
+			return digest.clone();
+		}
+
+		/**
+		 * 小写十六进制摘要字符串
+		 */
+		public String getHex() {
+			return Hex.encodeHexString(digest);
+		}
+
+		/**
+		 * 读取的字节数
+		 */
+		public long getBytes() {
+			return bytes;
+		}
+
+		/**
+		 * 耗时，单位纳秒
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * 吞吐量，单位字节/秒
+		 */
+		public double getThroughput() {
+			return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder(algorithm).append(' ').append(getHex()).append(' ').append(bytes)
+					.append(" bytes ");
+			DateUtil.appendDuration(nanos, TimeUnit.NANOSECONDS, TimeUnit.HOURS, TimeUnit.MILLISECONDS, sb);
+			return sb.append(' ').append(Math.round(getThroughput() / (1 << 20))).append(" MB/s").toString();
+		}
+	}
+
+	/**
+	 * 按块下标范围拆分的摘要计算任务，每个块单独映射
+	 */
+	private static class ChunkTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final FileChannel channel;
+		private final String algorithm;
+		private final int chunkSize;
+		private final byte[][] chunks;
+		private final int from;
+		private final int to;
+
+		ChunkTask(FileChannel channel, String algorithm, int chunkSize, byte[][] chunks, int from, int to) {
+			this.channel = channel;
+			this.algorithm = algorithm;
+			this.chunkSize = chunkSize;
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ChunkTask(channel, algorithm, chunkSize, chunks, from, mid),
+						new ChunkTask(channel, algorithm, chunkSize, chunks, mid, to));
+				return;
+			}
+			if (from == to)
+				return;
+			try {
+				long position = (long) from * chunkSize;
+				int size = (int) Math.min(chunkSize, channel.size() - position);
+				MessageDigest md = threadDigest(algorithm);
+				md.update(TREE_LEAF);
+				md.update(channel.map(MapMode.READ_ONLY, position, size));
+				chunks[from] = md.digest();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * 一次分段加密/解密的共享参数，各段按下标独立处理
+	 */
+	private static class Segments {
+		final byte[] header;// 文件头，作为每段的附加认证数据
+		final int segmentSize;
+		final long length;// 明文长度
+		final int count;// 段数
+		final byte[] nonce;// 基础 nonce
+		final SecretKey key;
+		final boolean encrypt;
+		private final Queue<ByteBuffer[]> buffers = new ConcurrentLinkedQueue<>();// 本次调用中各线程轮流使用的输入、输出缓冲区，调用结束后随本对象释放
+
+		Segments(byte[] header, SecretKey key, boolean encrypt) {
+			ByteBuffer buffer = ByteBuffer.wrap(header);
+			buffer.position(SEGMENT_MAGIC.length + 1); // 跳过标识和版本
+			this.header = header;
+			this.segmentSize = buffer.getInt();
+			this.length = buffer.getLong();
+			this.nonce = new byte[GCM_NONCE_LENGTH];
+			buffer.get(nonce);
+			long segmentCount = Math.max(1, (length + segmentSize - 1) / segmentSize);
+			if (segmentCount > Integer.MAX_VALUE)
+				throw new IllegalArgumentException("段数超过上限：" + segmentCount);
+			this.count = (int) segmentCount;
+			this.key = key;
+			this.encrypt = encrypt;
+		}
+
+		/**
+		 * 加密文件的总长度
+		 */
+		long encryptedLength() {
+			return SEGMENT_HEADER_LENGTH + length + (long) count * GCM_TAG_LENGTH;
+		}
+
+		/**
+		 * 第 segment 段的明文长度
+		 */
+		int plainLength(int segment) {
+			return (int) Math.min(segmentSize, length - (long) segment * segmentSize);
+		}
+
+		/**
+		 * 第 segment 段的 nonce：基础 nonce 的最后4字节与段下标异或
+		 */
+		GCMParameterSpec nonce(int segment) {
+			byte[] result = nonce.clone();
+			for (int i = 0; i < 4; i++)
+				result[result.length - 1 - i] ^= (byte) (segment >>> (i * 8));
+			return new GCMParameterSpec(GCM_TAG_LENGTH * 8, result);
+		}
+
+		/**
+		 * 在 ForkJoinPool.commonPool() 中并行处理 [from, to) 范围内的段
+		 */
+		void invoke(FileChannel in, FileChannel out, int from, int to) throws IOException, GeneralSecurityException {
+			try {
+				ForkJoinPool.commonPool().invoke(new SegmentTask(this, in, out, from, to));
+			} catch (TaskException e) {
+				Exception cause = (Exception) e.getCause();
+				if (cause instanceof IOException)
+					throw (IOException) cause;
+				throw (GeneralSecurityException) cause;
+			}
+		}
+
+		/**
+		 * 取得一对空闲的输入、输出直接缓冲区，没有时新建，新建的个数不超过同时处理的段数。<br />
+		 * 容量按实际段长度分配，小文件不会分配完整的段大小。
+		 */
+		ByteBuffer[] borrow() {
+			ByteBuffer[] pair = buffers.poll();
+			if (pair == null) {
+				int capacity = (int) Math.min(segmentSize, length) + GCM_TAG_LENGTH;
+				pair = new ByteBuffer[] { ByteBuffer.allocateDirect(capacity), ByteBuffer.allocateDirect(capacity) };
+			}
+			pair[0].clear();
+			pair[1].clear();
+			return pair;
+		}
+
+		/**
+		 * 归还 borrow 取得的缓冲区
+		 */
+		void release(ByteBuffer[] pair) {
+			buffers.offer(pair);
+		}
+
+		/**
+		 * 加密/解密第 segment 段，out 不为null时写入 out 的对应位置
+		 * 
+		 * @param pair borrow 取得的输入、输出缓冲区
+		 * @return 处理结果，即 pair 中的输出缓冲区
+		 */
+		ByteBuffer process(FileChannel in, FileChannel out, int segment, ByteBuffer[] pair)
+				throws IOException, GeneralSecurityException {
+			int plainLength = plainLength(segment);
+			long plainPosition = (long) segment * segmentSize;
+			long encryptedPosition = SEGMENT_HEADER_LENGTH + plainPosition + (long) segment * GCM_TAG_LENGTH;
+
+			ByteBuffer input = pair[0];
+			input.clear();
+			input.limit(encrypt ? plainLength : plainLength + GCM_TAG_LENGTH);
+			long readPosition = encrypt ? plainPosition : encryptedPosition;
+			while (input.hasRemaining())
+				if (in.read(input, readPosition + input.position()) < 0)
+					throw new IOException("文件在处理过程中被截短");
+			input.flip();
+
+			Cipher cipher = threadCipher(AES_GCM);
+			cipher.init(encrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, key, nonce(segment));
+			cipher.updateAAD(header);
+			ByteBuffer output = pair[1];
+			output.clear();
+			cipher.doFinal(input, output);
+			output.flip();
+
+			if (out != null) {
+				long writePosition = encrypt ? encryptedPosition : plainPosition;
+				while (output.hasRemaining())
+					out.write(output, writePosition + output.position());
+				output.flip();
+			}
+			return output;
+		}
+	}
+
+	/**
+	 * 按段下标范围拆分的加密/解密任务
+	 */
+	private static class SegmentTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Segments segments;
+		private final FileChannel in;
+		private final FileChannel out;
+		private final int from;
+		private final int to;
+
+		SegmentTask(Segments segments, FileChannel in, FileChannel out, int from, int to) {
+			this.segments = segments;
+			this.in = in;
+			this.out = out;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new SegmentTask(segments, in, out, from, mid), new SegmentTask(segments, in, out, mid, to));
+				return;
+			}
+			if (from == to)
+				return;
+			ByteBuffer[] pair = segments.borrow();
+			try {
+				segments.process(in, out, from, pair);
+			} catch (IOException | GeneralSecurityException e) {
+				throw new TaskException(e);
+			} finally {
+				segments.release(pair);
+			}
+		}
+	}
+
+	/**
+	 * 包装并行任务中的受检异常，由调用线程解包后重新抛出
+	 */
+	private static class TaskException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		TaskException(Exception cause) {
+			super(cause);
+		}
+	}
+
+	/**
+	 * 分块树形摘要：保存各块摘要和根摘要，以及最近一次计算的字节数和耗时
+	 */
+	public static final class TreeHash {
+		private final String algorithm;
+		private final int chunkSize;
+		private final long length;
+		private final byte[][] chunks;
+		private final byte[] root;
+		private final long hashedBytes;
+		private final long nanos;
+
+		TreeHash(String algorithm, int chunkSize, long length, byte[][] chunks, long hashedBytes, long nanos) {
+			this.algorithm = algorithm;
+			this.chunkSize = chunkSize;
+			this.length = length;
+			this.chunks = chunks;
+			this.hashedBytes = hashedBytes;
+			this.nanos = nanos;
+			MessageDigest md = messageDigest(algorithm);
+			md.update(ByteBuffer.allocate(13).put(TREE_NODE).putInt(chunkSize).putLong(length).flip());
+			for (byte[] chunk : chunks)
+				md.update(chunk);
+			this.root = md.digest();
+		}
+
+		/**
+		 * [fromChunk, toChunk) 范围内的字节数
+		 */
+		long chunkLength(int fromChunk, int toChunk) {
+			return Math.min(length, (long) toChunk * chunkSize) - Math.min(length, (long) fromChunk * chunkSize);
+		}
+
+		/**
+		 * 摘要算法
+		 */
+		public String getAlgorithm() {
+			return algorithm;
+		}
+
+		/**
+		 * 块大小
+		 */
+		public int getChunkSize() {
+			return chunkSize;
+		}
+
+		/**
+		 * 文件长度
+		 */
+		public long getLength() {
+			return length;
+		}
+
+		/**
+		 * 块数
+		 */
+		public int getChunkCount() {
+			return chunks.length;
+		}
+
+		/**
+		 * 指定块摘要的副本，即 H(0x00 || 块内容)
+		 */
+		public byte[] getChunkDigest(int chunk) {
+			return chunks[chunk].clone();
+		}
+
+		/**
+		 * 根摘要的副本
+		 */
+		public byte[] getRoot() {
+			return root.clone();
+		}
+
+		/**
+		 * 小写十六进制根摘要
+		 */
+		public String getRootHex() {
+			return Hex.encodeHexString(root);
+		}
+
+		/**
+		 * 最近一次计算读取的字节数
+		 */
+		public long getHashedBytes() {
+			return hashedBytes;
+		}
+
+		/**
+		 * 最近一次计算的耗时，单位纳秒
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * 最近一次计算的吞吐量，单位字节/秒
+		 */
+		public double getThroughput() {
+			return nanos == 0 ? 0 : hashedBytes * 1e9 / nanos;
+		}
+
+		@Override
+		public String toString() {
+			return algorithm + " " + getRootHex() + " " + length + " bytes " + chunks.length + " chunks";
+		}
+	}
+
+	/**
+	 * 文件加密/解密结果，包括处理的明文字节数、耗时和吞吐量
+	 */
+	public static final class CipherResult {
+		private final long bytes;
+		private final long nanos;
+
+		CipherResult(long bytes, long nanos) {
+			this.bytes = bytes;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * 处理的明文字节数
+		 */
+		public long getBytes() {
+			return bytes;
+		}
+
+		/**
+		 * 耗时，单位纳秒
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * 吞吐量，单位字节/秒
+		 */
+		public double getThroughput() {
+			return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder().append(bytes).append(" bytes ");
+			DateUtil.appendDuration(nanos, TimeUnit.NANOSECONDS, TimeUnit.HOURS, TimeUnit.MILLISECONDS, sb);
+			return sb.append(' ').append(Math.round(getThroughput() / (1 << 20))).append(" MB/s").toString();
+		}
+	}
+
 }
@@ -0,0 +1,315 @@
+package com.sweetmanor.utils;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 异步签名服务：在固定大小的线程池中执行 RSA/ECDSA 签名和验证，返回 CompletableFuture，调用线程不会被签名运算阻塞。
+ * 
+ * <pre>
+ * 		<ul>
+ * 			<li>每个工作线程持有自己的 Signature，创建时使用服务的密钥初始化一次，之后每次签名/验证后自动复位，不再重新初始化；
+ * 			<li>批量提交时每个任务处理一批消息，减少线程池队列的交接次数；
+ * 			<li>等待队列有界，队列已满时不再接受的消息立即以 RejectedExecutionException 异常完成，不会无限堆积；
+ * 			<li>提供排队消息数、完成数、失败数和延迟（从提交到完成）统计。
+ * 		</ul>
+ * </pre>
+ * 
+ * 服务是线程安全的，使用完成后需要调用 close 关闭线程池。
+ * 
+ * @version 1.0 2026-10-18
+ * @author ijlhjj
+ */
+public class SignatureService implements AutoCloseable {
+	private static final int BATCH_SIZE = 64;// 批量提交时每个任务处理的最大消息数
+	private static final int DEFAULT_QUEUE_CAPACITY = 1024;// 默认等待队列容量（任务数），最多约64K条消息
+	private static final AtomicInteger SERVICE_COUNT = new AtomicInteger();// 用于线程命名
+
+	private final String algorithm;
+	private final PrivateKey privateKey;
+	private final PublicKey publicKey;
+	private final ExecutorService executor;
+	private final ThreadLocal<Signature> signer;// 工作线程的签名对象
+	private final ThreadLocal<Signature> verifier;// 工作线程的验证对象
+
+	private final LongAdder queued = new LongAdder();// 已提交但未开始处理的消息数
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder totalLatency = new LongAdder();// 累计延迟，单位纳秒
+	private final AtomicLong maxLatency = new AtomicLong();// 最大延迟，单位纳秒
+
+	/**
+	 * 创建签名服务，等待队列最多保存1024个任务
+	 * 
+	 * @see #SignatureService(String, PrivateKey, PublicKey, int, int)
+	 */
+	public SignatureService(String algorithm, PrivateKey privateKey, PublicKey publicKey, int threads)
+			throws GeneralSecurityException {
+		this(algorithm, privateKey, publicKey, threads, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * 创建签名服务
+	 * 
+	 * @param algorithm     签名算法，例如 {@link SecurityUtil#SHA256_WITH_RSA}、{@link SecurityUtil#SHA256_WITH_ECDSA}
+	 * @param privateKey    签名使用的私钥，为null时不能签名
+	 * @param publicKey     验证使用的公钥，为null时不能验证
+	 * @param threads       工作线程数
+	 * @param queueCapacity 等待队列容量，按任务计数，每个任务最多处理64条消息
+	 * @throws GeneralSecurityException 不支持的算法或密钥不合法
+	 * @throws IllegalArgumentException 线程数或队列容量小于1、密钥都为null
+	 */
+	public SignatureService(String algorithm, PrivateKey privateKey, PublicKey publicKey, int threads,
+			int queueCapacity) throws GeneralSecurityException {
+		if (threads < 1)
+			throw new IllegalArgumentException("线程数必须大于0：" + threads);
+		if (queueCapacity < 1)
+			throw new IllegalArgumentException("队列容量必须大于0：" + queueCapacity);
+		if (privateKey == null && publicKey == null)
+			throw new IllegalArgumentException("私钥和公钥不能都为空！");
+		this.algorithm = algorithm;
+		this.privateKey = privateKey;
+		this.publicKey = publicKey;
+		// 提前检查算法和密钥，避免错误推迟到工作线程中
+		if (privateKey != null)
+			Signature.getInstance(algorithm).initSign(privateKey);
+		if (publicKey != null)
+			Signature.getInstance(algorithm).initVerify(publicKey);
+
+		this.signer = ThreadLocal.withInitial(() -> newSignature(true));
+		this.verifier = ThreadLocal.withInitial(() -> newSignature(false));
+		String prefix = "signature-" + SERVICE_COUNT.incrementAndGet() + "-";
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory factory = runnable -> {
+			Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), factory); // 队列满时抛出 RejectedExecutionException
+	}
+
+	/**
+	 * 异步签名
+	 * 
+	 * @param message 待签名数据，完成前不能修改
+	 * @return 签名结果
+	 * @throws IllegalStateException 服务没有私钥
+	 */
+	public CompletableFuture<byte[]> sign(byte[] message) {
+		return signAll(Collections.singletonList(message)).get(0);
+	}
+
+	/**
+	 * 批量异步签名
+	 * 
+	 * @param messages 待签名数据，完成前不能修改
+	 * @return 与 messages 顺序对应的签名结果，队列已满或服务已关闭时未提交的部分以 RejectedExecutionException 异常完成
+	 * @throws IllegalStateException 服务没有私钥
+	 */
+	public List<CompletableFuture<byte[]>> signAll(List<byte[]> messages) {
+		if (privateKey == null)
+			throw new IllegalStateException("签名服务没有私钥！");
+		return submit(messages.size(), i -> {
+			Signature signature = signer.get();
+			signature.update(messages.get(i));
+			return signature.sign();
+		});
+	}
+
+	/**
+	 * 异步验证签名
+	 * 
+	 * @param message 原始数据，完成前不能修改
+	 * @param sign    签名
+	 * @return 签名是否正确，签名格式错误时为false
+	 * @throws IllegalStateException 服务没有公钥
+	 */
+	public CompletableFuture<Boolean> verify(byte[] message, byte[] sign) {
+		return verifyAll(Collections.singletonList(message), Collections.singletonList(sign)).get(0);
+	}
+
+	/**
+	 * 批量异步验证签名
+	 * 
+	 * @param messages 原始数据，完成前不能修改
+	 * @param signs    与 messages 顺序对应的签名
+	 * @return 与 messages 顺序对应的验证结果，队列已满或服务已关闭时未提交的部分以 RejectedExecutionException 异常完成
+	 * @throws IllegalStateException    服务没有公钥
+	 * @throws IllegalArgumentException 数据与签名个数不一致
+	 */
+	public List<CompletableFuture<Boolean>> verifyAll(List<byte[]> messages, List<byte[]> signs) {
+		if (publicKey == null)
+			throw new IllegalStateException("签名服务没有公钥！");
+		if (messages.size() != signs.size())
+			throw new IllegalArgumentException("数据与签名个数不一致：" + messages.size() + " != " + signs.size());
+		return submit(messages.size(), i -> {
+			Signature signature = verifier.get();
+			signature.update(messages.get(i));
+			try {
+				return signature.verify(signs.get(i));
+			} catch (SignatureException e) { // 签名格式错误，重新创建以保证 Signature 状态正确
+				verifier.remove();
+				return false;
+			}
+		});
+	}
+
+	/**
+	 * 按批提交任务，每个任务顺序处理一批消息
+	 */
+	private <T> List<CompletableFuture<T>> submit(int count, Operation<T> operation) {
+		List<CompletableFuture<T>> futures = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			futures.add(new CompletableFuture<>());
+		long submitTime = System.nanoTime();
+		queued.add(count);
+
+		for (int from = 0; from < count; from += BATCH_SIZE) {
+			int start = from, end = Math.min(count, from + BATCH_SIZE);
+			try {
+				executor.execute(() -> {
+					for (int i = start; i < end; i++) {
+						queued.decrement();
+						complete(futures.get(i), operation, i, submitTime);
+					}
+				});
+			} catch (RejectedExecutionException e) { // 队列已满或服务已关闭
+				queued.add(start - count);
+				for (int i = start; i < count; i++)
+					futures.get(i).completeExceptionally(e);
+				break;
+			}
+		}
+		return futures;
+	}
+
+	/**
+	 * 执行一个操作并记录延迟
+	 */
+	private <T> void complete(CompletableFuture<T> future, Operation<T> operation, int index, long submitTime) {
+		try {
+			T result = operation.apply(index);
+			record(submitTime);
+			completed.increment();
+			future.complete(result);
+		} catch (Exception e) {
+			record(submitTime);
+			failed.increment();
+			future.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * 记录从提交到完成的延迟
+	 */
+	private void record(long submitTime) {
+		long latency = System.nanoTime() - submitTime;
+		totalLatency.add(latency);
+		maxLatency.accumulateAndGet(latency, Math::max);
+	}
+
+	/**
+	 * 创建工作线程使用的 Signature 并初始化
+	 */
+	private Signature newSignature(boolean sign) {
+		try {
+			Signature signature = Signature.getInstance(algorithm);
+			if (sign)
+				signature.initSign(privateKey);
+			else
+				signature.initVerify(publicKey);
+			return signature;
+		} catch (GeneralSecurityException e) { // 构造时已经检查过算法和密钥
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 签名算法
+	 */
+	public String getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * 已提交但未开始处理的消息数
+	 */
+	public long getQueueDepth() {
+		return queued.sum();
+	}
+
+	/**
+	 * 成功完成的消息数
+	 */
+	public long getCompletedCount() {
+		return completed.sum();
+	}
+
+	/**
+	 * 失败的消息数
+	 */
+	public long getFailedCount() {
+		return failed.sum();
+	}
+
+	/**
+	 * 平均延迟（从提交到完成），单位纳秒
+	 */
+	public long getAverageLatency() {
+		long count = completed.sum() + failed.sum();
+		return count == 0 ? 0 : totalLatency.sum() / count;
+	}
+
+	/**
+	 * 最大延迟（从提交到完成），单位纳秒
+	 */
+	public long getMaxLatency() {
+		return maxLatency.get();
+	}
+
+	/**
+	 * 关闭服务并等待已提交的消息处理完成
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return algorithm + " queued=" + getQueueDepth() + " completed=" + getCompletedCount() + " failed="
+				+ getFailedCount() + " avgLatency=" + getAverageLatency() / 1000 + "us maxLatency="
+				+ getMaxLatency() / 1000 + "us";
+	}
+
+	/**
+	 * 对第 index 个消息执行的签名/验证操作
+	 */
+	@FunctionalInterface
+	private interface Operation<T> {
+		T apply(int index) throws GeneralSecurityException;
+	}
+
+}
@@ -1,9 +1,30 @@
 package com.sweetmanor.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.format.DateTimeParseException;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.time.DateFormatUtils;
+import org.apache.commons.lang3.time.DateUtils;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -51,4 +72,264 @@ public class DateUtilTest {
 		assertEquals(Calendar.MONDAY, date.getDay() + 1);// getDay方法取值为0-6，Calendar的星期取值为1-7，所以此处加1
 	}
 
+	/**
+	 * 测试缓存的格式化对象，结果必须与原格式化方法一致
+	 */
+	@Test
+	public void testFormatter() throws IOException {
+		String[] patterns = { DateUtil.DEFAULT_FORMAT, "yyyyMMdd", "yyyy/MM/dd HH:mm:ss.SSS", "HH:mm" };
+		for (String pattern : patterns) {
+			DateUtil.Formatter formatter = DateUtil.formatter(pattern);
+			assertSame(formatter, DateUtil.formatter(pattern));
+			assertEquals(DateUtil.format(now, pattern), formatter.format(now));
+		}
+
+		DateUtil.Formatter formatter = DateUtil.formatter(DateUtil.DEFAULT_FORMAT);
+		StringBuilder out = new StringBuilder("time=");
+		formatter.formatTo(now, out);
+		assertEquals("time=" + DateUtil.format(now), out.toString());
+
+		char[] chars = new char[25];
+		int length = formatter.formatTo(now.getTime(), chars, 2);
+		assertEquals(DateUtil.format(now), new String(chars, 2, length));
+
+		// 缓存已满后仍然可以使用，只是不再缓存
+		for (int i = 0; i < 300; i++) {
+			String pattern = "'p" + i + "' yyyy";
+			assertEquals(DateUtil.format(now, pattern), DateUtil.formatter(pattern).format(now));
+		}
+		assertSame(formatter, DateUtil.formatter(DateUtil.DEFAULT_FORMAT));
+	}
+
+	/**
+	 * 测试默认格式的快速格式化和解析，结果必须与 DateFormatUtils 一致
+	 */
+	@Test
+	public void testFormatDefault() throws ParseException {
+		assertSame(DateUtil.formatDefault(now.getTime()), DateUtil.formatDefault(now.getTime() / 1000 * 1000));// 同一秒返回缓存结果
+
+		Random random = new Random(20161124);
+		char[] chars = new char[DateUtil.DEFAULT_FORMAT.length()];
+		long[] edges = { 0, -1, -999, -1000, -1001, Long.MIN_VALUE / 1000, -12219292800000L, 253402300799999L };
+		for (int i = 0; i < 100_000; i++) {
+			long millis = i < edges.length ? edges[i] : random.nextLong() % 300_000_000_000_000L;
+			String expected = DateFormatUtils.format(millis, DateUtil.DEFAULT_FORMAT);
+			assertEquals(expected, DateUtil.formatDefault(millis), String.valueOf(millis));
+
+			int year = Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC).getYear();
+			if (year > 1583 && year < 9999) {
+				DateUtil.formatDefault(millis, chars, 0);
+				assertEquals(expected, new String(chars));
+				assertEquals(DateUtils.parseDate(expected, DateUtil.DEFAULT_FORMAT).getTime(),
+						DateUtil.parseDefault("[" + expected + "]", 1));
+			}
+		}
+
+		assertThrows(DateTimeParseException.class, () -> DateUtil.parseDefault("2016-02-30 00:00:00", 0));
+		assertThrows(DateTimeParseException.class, () -> DateUtil.parseDefault("2016-02-28T00:00:00", 0));
+		assertThrows(DateTimeParseException.class, () -> DateUtil.parseDefault("2016-02-28 00:00", 0));
+
+		// 1583年前后的边界：格式化结果必须能解析回原值
+		for (String text : new String[] { "0001-01-01 00:00:00", "1500-02-29 12:00:00", "1582-10-04 23:59:59",
+				"1582-10-15 00:00:00", "1582-12-31 23:59:59", "1583-01-01 00:00:00", "9999-12-31 23:59:59" }) {
+			long millis = DateUtil.parseDefault(text, 0);
+			assertEquals(DateUtils.parseDate(text, DateUtil.DEFAULT_FORMAT).getTime(), millis, text);
+			assertEquals(text, DateUtil.formatDefault(millis));
+			assertEquals(millis, DateUtil.parseDefault(DateUtil.formatDefault(millis), 0));
+		}
+		assertThrows(DateTimeParseException.class, () -> DateUtil.parseDefault("0000-01-01 00:00:00", 0));
+		assertThrows(DateTimeParseException.class, () -> DateUtil.parseDefault("1582-10-10 00:00:00", 0));
+		assertThrows(DateTimeParseException.class, () -> DateUtil.parseDefault("1501-02-29 00:00:00", 0));
+
+		// 跟随 TimeZone.setDefault 的修改
+		TimeZone original = TimeZone.getDefault();
+		try {
+			long millis = 1_500_000_000_000L;
+			TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+			assertEquals("2017-07-14 02:40:00", DateUtil.formatDefault(millis));
+			assertEquals("2017-07-14 02:40:00", DateUtil.format(new Date(millis)));
+			TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+			assertEquals("2017-07-14 10:40:00", DateUtil.formatDefault(millis));
+			assertEquals(millis, DateUtil.parseDefault("2017-07-14 10:40:00", 0));
+		} finally {
+			TimeZone.setDefault(original);
+		}
+	}
+
+	/**
+	 * 测试基于毫秒值的日期计算，结果必须与 java.time 一致，包含夏令时和非整点偏移的时区
+	 */
+	@Test
+	public void testMillis() {
+		String[] zones = { "UTC", "Asia/Shanghai", "America/New_York", "Europe/London", "Australia/Lord_Howe",
+				"Asia/Kathmandu", "America/Santiago" };
+		Random random = new Random(20161124);
+		for (String zoneId : zones) {
+			ZoneId zone = ZoneId.of(zoneId);
+			List<ZoneOffsetTransition> transitions = zone.getRules().getTransitions();
+			for (int i = 0; i < 10_000; i++) {
+				long millis = random.nextLong() % 4_000_000_000_000L;
+				if (i % 2 == 0 && !transitions.isEmpty()) // 一半样本取时区切换前后24小时内的时刻
+					millis = transitions.get(random.nextInt(transitions.size())).toEpochSecond() * 1000
+							+ (random.nextInt(193) - 96) * 900_000L;
+				ZonedDateTime time = Instant.ofEpochMilli(millis).atZone(zone);
+				LocalDate date = time.toLocalDate();
+				String message = zoneId + " " + time;
+
+				assertEquals(date.atStartOfDay(zone).toInstant().toEpochMilli(), DateUtil.Millis.startOfDay(millis, zone),
+						message);
+				assertEquals(date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1,
+						DateUtil.Millis.endOfDay(millis, zone), message);
+				assertEquals(time.truncatedTo(ChronoUnit.HOURS).toInstant().toEpochMilli(),
+						DateUtil.Millis.startOfHour(millis, zone), message);
+				assertEquals(
+						date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay(zone).toInstant()
+								.toEpochMilli(),
+						DateUtil.Millis.startOfWeek(millis, zone, DayOfWeek.MONDAY), message);
+				assertEquals(date.withDayOfMonth(1).atStartOfDay(zone).toInstant().toEpochMilli(),
+						DateUtil.Millis.startOfMonth(millis, zone), message);
+				assertEquals(date.withDayOfMonth(1).plusMonths(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1,
+						DateUtil.Millis.endOfMonth(millis, zone), message);
+				assertEquals(time.with(TemporalAdjusters.lastDayOfMonth()).toInstant().toEpochMilli(),
+						DateUtil.Millis.lastDayOfMonth(millis, zone), message);
+				assertEquals(time.plusDays(45).toInstant().toEpochMilli(), DateUtil.Millis.addDays(millis, 45, zone),
+						message);
+				assertEquals(time.plusMonths(-13).toInstant().toEpochMilli(),
+						DateUtil.Millis.addMonths(millis, -13, zone), message);
+			}
+		}
+
+		Date endOfMonth = new Date(DateUtil.Millis.endOfMonth(now.getTime()));// 默认时区
+		ZoneId defaultZone = ZoneId.systemDefault();
+		assertEquals(DateUtil.getLastDayOfMonth(now).toInstant().atZone(defaultZone).getDayOfMonth(),
+				endOfMonth.toInstant().atZone(defaultZone).getDayOfMonth());
+
+		// 不同时区交替查询，以及跟随 TimeZone.setDefault 的修改
+		long millis = 1_500_000_000_000L;
+		ZoneId shanghai = ZoneId.of("Asia/Shanghai"), newYork = ZoneId.of("America/New_York");
+		for (int i = 0; i < 3; i++) {
+			assertEquals(ZonedDateTime.of(2017, 7, 14, 0, 0, 0, 0, shanghai).toInstant().toEpochMilli(),
+					DateUtil.Millis.startOfDay(millis, shanghai));
+			assertEquals(ZonedDateTime.of(2017, 7, 13, 0, 0, 0, 0, newYork).toInstant().toEpochMilli(),
+					DateUtil.Millis.startOfDay(millis, newYork));
+		}
+		TimeZone original = TimeZone.getDefault();
+		try {
+			TimeZone.setDefault(TimeZone.getTimeZone(newYork));
+			assertEquals(DateUtil.Millis.startOfDay(millis, newYork), DateUtil.Millis.startOfDay(millis));
+			TimeZone.setDefault(TimeZone.getTimeZone(shanghai));
+			assertEquals(DateUtil.Millis.startOfDay(millis, shanghai), DateUtil.Millis.startOfDay(millis));
+		} finally {
+			TimeZone.setDefault(original);
+		}
+	}
+
+	/**
+	 * 测试批量截取和分组，结果必须与逐个计算一致
+	 */
+	@Test
+	public void testBulkMillis() {
+		ZoneId zone = ZoneId.of("America/New_York");
+		Random random = new Random(20161124);
+		long[] millis = new long[100_000];// 超过分段大小，覆盖并行计算
+		long time = 1_400_000_000_000L;
+		for (int i = 0; i < millis.length; i++) {
+			time += random.nextInt(3_600_000);// 按时间排序的数据
+			millis[i] = i % 10 == 0 ? random.nextLong() % 4_000_000_000_000L : time;
+		}
+
+		long[] truncated = new long[millis.length];
+		int[] keys = new int[millis.length];
+		ChronoUnit[] units = { ChronoUnit.HOURS, ChronoUnit.DAYS, ChronoUnit.WEEKS, ChronoUnit.MONTHS };
+		for (ChronoUnit unit : units) {
+			for (boolean parallel : new boolean[] { false, true }) {
+				DateUtil.Millis.truncate(millis, unit, zone, truncated, parallel);
+				DateUtil.Millis.bucket(millis, unit, zone, keys, parallel);
+				for (int i = 0; i < millis.length; i++) {
+					ZonedDateTime t = Instant.ofEpochMilli(millis[i]).atZone(zone);
+					LocalDate date = t.toLocalDate();
+					long expected;
+					int expectedKey;
+					if (unit == ChronoUnit.HOURS) {
+						expected = DateUtil.Millis.startOfHour(millis[i], zone);
+						expectedKey = (int) Math.floorDiv(t.toLocalDateTime().toEpochSecond(ZoneOffset.UTC), 3600);
+					} else if (unit == ChronoUnit.DAYS) {
+						expected = DateUtil.Millis.startOfDay(millis[i], zone);
+						expectedKey = (int) date.toEpochDay();
+					} else if (unit == ChronoUnit.WEEKS) {
+						expected = DateUtil.Millis.startOfWeek(millis[i], zone, DayOfWeek.SUNDAY);
+						expectedKey = (int) date.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY)).toEpochDay();
+					} else {
+						expected = DateUtil.Millis.startOfMonth(millis[i], zone);
+						expectedKey = (date.getYear() - 1970) * 12 + date.getMonthValue() - 1;
+					}
+					assertEquals(expected, truncated[i], unit + " " + t);
+					assertEquals(expectedKey, keys[i], unit + " " + t);
+				}
+			}
+		}
+
+		// 同一小时内的密集数据跨越时区切换（包括半小时夏令时），复用的小时区间必须与逐个截取一致
+		for (String zoneId : new String[] { "America/New_York", "Australia/Lord_Howe", "Asia/Kathmandu" }) {
+			ZoneId dense = ZoneId.of(zoneId);
+			long[] samples = new long[20_000];
+			List<ZoneOffsetTransition> transitions = dense.getRules().getTransitions();
+			for (ZoneOffsetTransition transition : transitions.subList(Math.max(0, transitions.size() - 4),
+					transitions.size())) {
+				long base = transition.toEpochSecond() * 1000 - 3 * 3_600_000L;
+				for (int i = 0; i < samples.length; i++)
+					samples[i] = base + i * 1_000L;// 每秒一个，覆盖切换前后约5.5小时
+				long[] result = new long[samples.length];
+				DateUtil.Millis.truncate(samples, ChronoUnit.HOURS, dense, result);
+				for (int i = 0; i < samples.length; i++)
+					assertEquals(Instant.ofEpochMilli(samples[i]).atZone(dense).truncatedTo(ChronoUnit.HOURS).toInstant()
+							.toEpochMilli(), result[i], zoneId + " " + samples[i]);
+			}
+		}
+
+		assertThrows(IllegalArgumentException.class,
+				() -> DateUtil.Millis.truncate(millis, ChronoUnit.YEARS, zone, new long[millis.length]));
+		assertThrows(IllegalArgumentException.class,
+				() -> DateUtil.Millis.bucket(millis, ChronoUnit.DAYS, zone, new int[1]));
+	}
+
+	/**
+	 * 测试时长追加输出
+	 */
+	@Test
+	public void testAppendDuration() throws IOException {
+		assertEquals("1年 0月 0日 0时 0分 0秒 5毫秒", DateUtil.convertMillisToString(360L * 86400000 + 5));
+		assertEquals("1分 1秒 1毫秒", DateUtil.appendMillis(61001, new StringBuilder()).toString());
+		assertEquals("x0毫秒", DateUtil.appendMillis(0, new StringBuilder("x")).toString());
+
+		StringBuilder sb = new StringBuilder();
+		long nanos = TimeUnit.MINUTES.toNanos(2) + TimeUnit.SECONDS.toNanos(3) + 45_006_789;
+		DateUtil.appendDuration(nanos, TimeUnit.NANOSECONDS, TimeUnit.MINUTES, TimeUnit.MICROSECONDS, sb);
+		assertEquals("2m 3s 45ms 6us", sb.toString());
+
+		sb.setLength(0);
+		DateUtil.appendDuration(nanos, TimeUnit.NANOSECONDS, TimeUnit.SECONDS, TimeUnit.NANOSECONDS, sb);
+		assertEquals("123s 45ms 6us 789ns", sb.toString());
+
+		sb.setLength(0);
+		DateUtil.appendDuration(-90, TimeUnit.MINUTES, TimeUnit.DAYS, TimeUnit.MINUTES, sb);
+		assertEquals("-1h 30m", sb.toString());
+
+		sb.setLength(0);
+		DateUtil.appendDuration(999, TimeUnit.MICROSECONDS, TimeUnit.HOURS, TimeUnit.MILLISECONDS, sb);
+		assertEquals("0ms", sb.toString());
+
+		sb.setLength(0);
+		DateUtil.appendDuration(Long.MIN_VALUE, TimeUnit.NANOSECONDS, TimeUnit.NANOSECONDS, TimeUnit.NANOSECONDS, sb);
+		assertEquals("-9223372036854775808ns", sb.toString());
+
+		// 任意 Appendable
+		StringBuffer buffer = DateUtil.appendDuration(3_600_000, TimeUnit.MILLISECONDS, TimeUnit.DAYS,
+				TimeUnit.SECONDS, new StringBuffer());
+		assertEquals("1h 0m 0s", buffer.toString());
+
+		assertThrows(IllegalArgumentException.class, () -> DateUtil.appendDuration(1, TimeUnit.SECONDS,
+				TimeUnit.SECONDS, TimeUnit.MINUTES, new StringBuilder()));
+	}
+
 }
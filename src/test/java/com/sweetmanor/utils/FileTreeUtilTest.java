@@ -0,0 +1,333 @@
+package com.sweetmanor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileTreeUtilTest {
+	@TempDir
+	File tempDir;
+
+	private File write(String path, int size) throws IOException {
+		File file = new File(tempDir, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), new byte[size]);
+		return file;
+	}
+
+	/**
+	 * 测试目录树统计
+	 */
+	@Test
+	public void testWalk() throws IOException {
+		long bytes = 0;
+		for (int i = 0; i < 200; i++) {
+			write("d" + (i % 4) + "/e" + (i % 7) + "/f" + i, i);
+			bytes += i;
+		}
+		new File(tempDir, "empty/nested").mkdirs();
+
+		FileTreeUtil.TreeStats stats = FileTreeUtil.walk(tempDir);
+		assertEquals(200, stats.getFiles());
+		assertEquals(4 + 4 * 7 + 2, stats.getDirs());
+		assertEquals(bytes, stats.getBytes());
+		assertEquals(0, stats.getErrorCount());
+		assertTrue(stats.getErrors().isEmpty());
+
+		FileTreeUtil.TreeStats single = FileTreeUtil.walk(tempDir, 1);
+		assertEquals(stats.getFiles(), single.getFiles());
+		assertEquals(stats.getDirs(), single.getDirs());
+		assertEquals(stats.getBytes(), single.getBytes());
+
+		assertEquals(200, FileUtil.countFiles(tempDir));
+		assertEquals(34, FileUtil.countDirs(tempDir));
+		assertEquals(234, FileUtil.countDirAndFiles(tempDir));
+		assertEquals(0, FileUtil.countFiles(new File(tempDir, "empty")));
+		assertEquals(1, FileUtil.countDirs(new File(tempDir, "empty")));
+
+		File file = write("a.txt", 1);
+		assertThrows(IllegalArgumentException.class, () -> FileTreeUtil.walk(file));
+		assertThrows(IllegalArgumentException.class, () -> FileTreeUtil.walk(tempDir, 0));
+	}
+
+	/**
+	 * 测试无法读取的目录记录为错误，不中断遍历
+	 */
+	@Test
+	public void testWalkError() throws IOException {
+		write("ok/a", 10);
+		File locked = new File(tempDir, "locked");
+		write("locked/b", 20);
+		assumeTrue(locked.setReadable(false) && !locked.canRead()); // 不支持权限或以 root 运行时跳过
+		try {
+			FileTreeUtil.TreeStats stats = FileTreeUtil.walk(tempDir, 2);
+			assertEquals(1, stats.getFiles());
+			assertEquals(2, stats.getDirs());
+			assertEquals(10, stats.getBytes());
+			assertEquals(1, stats.getErrorCount());
+			assertTrue(stats.getErrors().get(0).contains("locked"));
+		} finally {
+			locked.setReadable(true);
+		}
+	}
+
+	private Set<String> search(int maxDepth, PathMatcher matcher, boolean parallel) {
+		try (Stream<Path> stream = FileTreeUtil.search(tempDir, maxDepth, matcher, parallel)) {
+			return stream.map(path -> tempDir.toPath().relativize(path).toString().replace(File.separatorChar, '/'))
+					.collect(Collectors.toSet());
+		}
+	}
+
+	/**
+	 * 测试延迟查找文件
+	 */
+	@Test
+	public void testSearch() throws IOException {
+		for (int i = 0; i < 300; i++)
+			write("d" + (i % 3) + "/e" + (i % 5) + "/f" + i + (i % 2 == 0 ? ".java" : ".txt"), 1);
+		write("a.java", 1);
+		write("b.JAVA", 1);
+		write("c.xml", 1);
+		new File(tempDir, "dir.java").mkdirs();
+
+		assertEquals(303, search(Integer.MAX_VALUE, null, false).size());
+		assertEquals(303, search(Integer.MAX_VALUE, null, true).size());
+		assertEquals(Set.of("a.java", "b.JAVA", "c.xml"), search(1, null, true));
+		assertEquals(Set.of("a.java"), search(1, FileTreeUtil.extensionMatcher("java"), false));
+		assertEquals(Set.of("a.java", "c.xml"), search(2, FileTreeUtil.extensionMatcher("java", "xml"), false));
+		assertEquals(0, search(2, FileTreeUtil.extensionMatcher("txt"), false).size());
+
+		Set<String> java = search(Integer.MAX_VALUE, FileTreeUtil.extensionMatcher("java"), true);
+		assertEquals(151, java.size());
+		assertEquals(java, search(Integer.MAX_VALUE, FileTreeUtil.globMatcher("*.java"), true));
+		assertEquals(java, search(Integer.MAX_VALUE, FileTreeUtil.regexMatcher(".*\\.java"), false));
+		assertTrue(java.contains("d0/e0/f0.java"));
+
+		// 与 getFiles 结果一致
+		File[] files = FileUtil.getFiles(tempDir, new String[] { "java", "xml" }, true);
+		assertEquals(files.length, search(Integer.MAX_VALUE, FileTreeUtil.extensionMatcher("java", "xml"), true).size());
+
+		// 短路操作提前结束遍历
+		try (Stream<Path> stream = FileTreeUtil.search(tempDir, Integer.MAX_VALUE, null, true)) {
+			List<Path> first = stream.limit(10).collect(Collectors.toList());
+			assertEquals(10, first.size());
+		}
+		try (Stream<Path> stream = FileTreeUtil.search(tempDir, Integer.MAX_VALUE, null, false)) {
+			Iterator<Path> iterator = stream.iterator();
+			assertTrue(Files.isRegularFile(iterator.next()));
+		}
+
+		// 很大的扁平目录分段预读，结果不变
+		for (int i = 0; i < 1000; i++)
+			write("flat/f" + i, 0);
+		write("flat/sub/g", 0);
+		try (Stream<Path> stream = FileTreeUtil.search(new File(tempDir, "flat"), Integer.MAX_VALUE, null, true)) {
+			assertEquals(1001, stream.distinct().count());
+		}
+
+		File file = write("x/y.txt", 1);
+		assertThrows(IllegalArgumentException.class, () -> FileTreeUtil.search(file, 1, null, false));
+		assertThrows(IllegalArgumentException.class, () -> FileTreeUtil.search(tempDir, 0, null, false));
+	}
+
+	/**
+	 * 测试并行拷贝、强制覆盖和跳过没有变化的文件
+	 */
+	@Test
+	public void testCopy() throws IOException {
+		File source = new File(tempDir, "source");
+		long bytes = 0;
+		for (int i = 0; i < 100; i++) {
+			File file = write("source/d" + (i % 3) + "/f" + i, i * 100);
+			file.setLastModified(1_600_000_000_000L + i * 1000);
+			bytes += i * 100;
+		}
+		write("source/big", 3 << 20);
+		bytes += 3 << 20;
+		new File(source, "empty").mkdirs();
+		File target = new File(tempDir, "target");
+
+		AtomicInteger calls = new AtomicInteger();
+		FileTreeUtil.CopyStats stats = FileTreeUtil.copy(source, target, 4, true, null, progress -> calls.incrementAndGet());
+		assertTrue(stats.isDone());
+		assertEquals(101, stats.getCopied());
+		assertEquals(0, stats.getSkipped());
+		assertEquals(bytes, stats.getBytes());
+		assertEquals(0, stats.getErrorCount());
+		assertEquals(101, calls.get());
+		assertTrue(new File(target, "empty").isDirectory());
+		for (File file : FileUtil.getFiles(source, null, true)) {
+			File copy = new File(target, source.toPath().relativize(file.toPath()).toString());
+			assertArrayEquals(Files.readAllBytes(file.toPath()), Files.readAllBytes(copy.toPath()));
+			assertEquals(file.lastModified(), copy.lastModified());
+		}
+
+		// 修改一个文件后只拷贝该文件
+		Files.write(new File(source, "d1/f1").toPath(), new byte[] { 1, 2, 3 });
+		stats = FileTreeUtil.copy(source, target, 2, true);
+		assertEquals(1, stats.getCopied());
+		assertEquals(100, stats.getSkipped());
+		assertEquals(3, stats.getBytes());
+
+		// 大小和修改时间相同但内容不同，只有比较摘要时才拷贝
+		File changed = new File(target, "d2/f2");
+		long lastModified = changed.lastModified();
+		Files.write(changed.toPath(), "x".repeat(200).getBytes());
+		changed.setLastModified(lastModified);
+		assertEquals(0, FileTreeUtil.copy(source, target, 2, true).getCopied());
+		stats = FileTreeUtil.copy(source, target, 2, true, SecurityUtil.MD5, null);
+		assertEquals(1, stats.getCopied());
+		assertArrayEquals(Files.readAllBytes(new File(source, "d2/f2").toPath()), Files.readAllBytes(changed.toPath()));
+
+		// 默认强制覆盖
+		stats = FileTreeUtil.copy(source, target, 2);
+		assertEquals(101, stats.getCopied());
+		assertEquals(0, stats.getSkipped());
+
+		// 文件拷贝到目录，已存在时强制覆盖
+		File dir = new File(tempDir, "dir");
+		dir.mkdirs();
+		FileUtil.copyFile(new File(source, "d0/f3"), dir);
+		assertEquals(300, new File(dir, "f3").length());
+		File copy = new File(dir, "f3");
+		Files.write(copy.toPath(), "y".repeat(300).getBytes()); // 大小和修改时间相同，内容不同
+		copy.setLastModified(new File(source, "d0/f3").lastModified());
+		FileUtil.copyFile(new File(source, "d0/f3"), dir);
+		assertArrayEquals(new byte[300], Files.readAllBytes(copy.toPath()));
+
+		assertThrows(IOException.class, () -> FileTreeUtil.copy(source, new File(source, "d0/f0"), 1));
+		assertThrows(IOException.class, () -> FileTreeUtil.copy(source, new File(source, "d0/sub"), 1));
+		assertThrows(IOException.class, () -> FileTreeUtil.copy(new File(tempDir, "none"), target, 1));
+		assertThrows(IllegalArgumentException.class, () -> FileTreeUtil.copy(source, target, 0));
+	}
+
+	/**
+	 * 测试指向目录的符号链接和无效的符号链接不拷贝，记录在结果中
+	 */
+	@Test
+	public void testCopyIgnored() throws IOException {
+		File source = new File(tempDir, "source");
+		write("source/a", 10);
+		write("outside/b", 20);
+		try {
+			Files.createSymbolicLink(new File(source, "link").toPath(), new File(tempDir, "outside").toPath());
+			Files.createSymbolicLink(new File(source, "broken").toPath(), new File(tempDir, "none").toPath());
+			Files.createSymbolicLink(new File(source, "file").toPath(), new File(tempDir, "outside/b").toPath());
+		} catch (UnsupportedOperationException | IOException e) {
+			assumeTrue(false, "不支持符号链接");
+		}
+
+		File target = new File(tempDir, "target");
+		FileTreeUtil.CopyStats stats = FileTreeUtil.copy(source, target, 2);
+		assertEquals(2, stats.getCopied());
+		assertEquals(2, stats.getIgnored());
+		assertEquals(0, stats.getErrorCount());
+		assertEquals(2, stats.getIgnoredEntries().size());
+		assertTrue(stats.getIgnoredEntries().stream().anyMatch(entry -> entry.contains("link")));
+		assertEquals(20, new File(target, "file").length());
+		assertTrue(!new File(target, "link").exists() && !new File(target, "broken").exists());
+	}
+
+	/**
+	 * 测试源与目标是同一个文件时拒绝拷贝，不截断源文件
+	 */
+	@Test
+	public void testCopySameFile() throws IOException {
+		File dir = new File(tempDir, "dir");
+		File file = write("dir/x.txt", 100);
+		write("dir/sub/y.txt", 200);
+
+		assertThrows(IOException.class, () -> FileTreeUtil.copy(dir, dir, 2)); // 目录拷贝到自身
+		assertThrows(IOException.class, () -> FileUtil.copyFile(file, file)); // 文件拷贝到自身
+		assertThrows(IOException.class, () -> FileUtil.copyFile(file, dir)); // 文件拷贝到所在目录
+		assertEquals(100, file.length());
+		assertEquals(200, new File(dir, "sub/y.txt").length());
+
+		File link = new File(tempDir, "link.txt");
+		try {
+			Files.createLink(link.toPath(), file.toPath());
+		} catch (UnsupportedOperationException | IOException e) {
+			assumeTrue(false, "不支持硬链接");
+		}
+		assertThrows(IOException.class, () -> FileTreeUtil.copy(file, link, 1)); // 目标是源文件的硬链接
+		assertEquals(100, file.length());
+
+		// 目标目录中的文件是源文件的硬链接：记录为错误，其它文件正常拷贝
+		File target = new File(tempDir, "target");
+		target.mkdirs();
+		Files.createLink(new File(target, "x.txt").toPath(), file.toPath());
+		FileTreeUtil.CopyStats stats = FileTreeUtil.copy(dir, target, 2);
+		assertEquals(1, stats.getErrorCount());
+		assertEquals(1, stats.getCopied());
+		assertEquals(100, file.length());
+		assertEquals(200, new File(target, "sub/y.txt").length());
+	}
+
+	private File write(String path, byte[] content) throws IOException {
+		File file = new File(tempDir, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content);
+		return file;
+	}
+
+	private List<String> names(List<Path> group) {
+		return group.stream().map(path -> path.getFileName().toString()).collect(Collectors.toList());
+	}
+
+	/**
+	 * 测试分级查找重复文件
+	 */
+	@Test
+	public void testFindDuplicates() throws IOException {
+		byte[] big = new byte[100_000];
+		new Random(1).nextBytes(big);
+		write("a/big1", big);
+		write("b/big2", big);
+		byte[] middle = big.clone();
+		middle[50_000] ^= 1; // 首尾块相同，只有完整摘要不同
+		write("c/big3", middle);
+		write("small1", "hello".getBytes());
+		write("d/small2", "hello".getBytes());
+		write("small3", "world".getBytes()); // 大小相同，内容不同
+		write("unique", "unique content".getBytes());
+		write("empty1", new byte[0]);
+		write("empty2", new byte[0]);
+
+		// 符号链接和硬链接不作为重复文件
+		try {
+			Files.createSymbolicLink(new File(tempDir, "link").toPath(), new File(tempDir, "unique").toPath());
+			Files.createLink(new File(tempDir, "hard").toPath(), new File(tempDir, "unique").toPath());
+		} catch (UnsupportedOperationException | IOException e) { // 不支持链接时只比较普通文件
+		}
+
+		List<List<Path>> groups = FileTreeUtil.findDuplicates(tempDir, SecurityUtil.SHA256, 4)
+				.collect(Collectors.toList());
+		assertEquals(2, groups.size());
+		assertEquals(List.of("big1", "big2"), names(groups.get(0)));
+		assertEquals(List.of("small2", "small1"), names(groups.get(1))); // 按路径排序：d/small2 在 small1 之前
+
+		assertEquals(2, FileUtil.findDuplicates(tempDir, SecurityUtil.MD5).count());
+		assertEquals(0, FileTreeUtil.findDuplicates(new File(tempDir, "a"), SecurityUtil.MD5, 1).count());
+		assertThrows(IllegalArgumentException.class, () -> FileTreeUtil.findDuplicates(tempDir, "none", 1));
+		assertThrows(IllegalArgumentException.class, () -> FileTreeUtil.findDuplicates(tempDir, SecurityUtil.MD5, 0));
+	}
+
+}
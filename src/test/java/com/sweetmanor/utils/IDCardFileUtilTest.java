@@ -0,0 +1,78 @@
+package com.sweetmanor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class IDCardFileUtilTest {
+	@TempDir
+	File tempDir;
+	private File csv;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		csv = new File(tempDir, "id.csv");
+		String content = "姓名,身份证号,备注\r\n" //
+				+ "张三,110102210605150319,有效\r\n" //
+				+ "李四,11010221060515031x,校验位错误\r\n" //
+				+ "\"王,五\",\" 110102060515031 \",引号中包含分隔符\r\n" //
+				+ "赵六\r\n" //
+				+ "孙七,110102210605150319"; // 最后一行没有换行符
+		Files.write(csv.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 测试扫描CSV文件并回调行位置
+	 */
+	@Test
+	public void testScan() throws IOException {
+		List<long[]> rows = new ArrayList<>();
+		IDCardUtil.CheckResult result = IDCardFileUtil.scan(csv, 1, ',', true,
+				(row, offset, length, code) -> rows.add(new long[] { row, offset, length, code }));
+
+		assertEquals(5, result.getTotal());
+		assertEquals(3, result.getValidCount());
+		assertTrue(result.isValid(0));
+		assertFalse(result.isValid(1));
+		assertTrue(result.isValid(2));
+		assertFalse(result.isValid(3));
+		assertTrue(result.isValid(4));
+		assertEquals(1, result.getRejectCount(IDCardUtil.BAD_CHECKSUM));
+		assertEquals(1, result.getRejectCount(IDCardUtil.BAD_LENGTH));
+
+		byte[] bytes = Files.readAllBytes(csv.toPath());
+		long[] row = rows.get(1);
+		String line = new String(bytes, (int) row[1], (int) row[2], StandardCharsets.UTF_8);
+		assertEquals("李四,11010221060515031x,校验位错误", line); // 长度不包括CRLF中的\r
+		assertEquals(IDCardUtil.BAD_CHECKSUM, row[3]);
+		row = rows.get(4);
+		assertEquals("孙七,110102210605150319", new String(bytes, (int) row[1], (int) row[2], StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 测试过滤CSV文件，只保留标题行和有效行
+	 */
+	@Test
+	public void testFilter() throws IOException {
+		File target = new File(tempDir, "valid.csv");
+		IDCardFileUtil.filter(csv, target, 1, ',', true);
+
+		String expected = "姓名,身份证号,备注\r\n" //
+				+ "张三,110102210605150319,有效\r\n" //
+				+ "\"王,五\",\" 110102060515031 \",引号中包含分隔符\r\n" //
+				+ "孙七,110102210605150319";
+		assertEquals(expected, new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+	}
+
+}
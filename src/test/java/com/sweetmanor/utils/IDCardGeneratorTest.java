@@ -0,0 +1,81 @@
+package com.sweetmanor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class IDCardGeneratorTest {
+	private static final int COUNT = 200_000;// 超过单个任务的生成上限，覆盖并行拆分
+
+	/**
+	 * 测试生成的号码全部有效，且符合设置的地址码、出生日期和性别参数
+	 */
+	@Test
+	public void testGenerate() {
+		IDCardGenerator generator = new IDCardGenerator(2015);
+		generator.setRegions(new int[] { 110102, 330106 }, new double[] { 3, 1 });
+		generator.setBirthRange(LocalDate.of(1999, 12, 30), LocalDate.of(2000, 3, 1));
+		generator.setMaleRatio(1);
+
+		char[] ids = new char[COUNT * 18];
+		generator.generate(ids, 0, COUNT);
+		int beijing = 0;
+		for (int i = 0; i < COUNT; i++) {
+			IDCardUtil.IDCardInfo info = IDCardUtil.parse(new String(ids, i * 18, 18));
+			assertTrue(info.isValid(), info.toString());
+			assertTrue(info.isMale());
+			LocalDate birthday = LocalDate.ofEpochDay(info.getBirthEpochDay());
+			assertTrue(!birthday.isBefore(LocalDate.of(1999, 12, 30)) && !birthday.isAfter(LocalDate.of(2000, 3, 1)));
+			if (info.getRegionCode() == 110102)
+				beijing++;
+		}
+		assertEquals(0.75, (double) beijing / COUNT, 0.01);// 按权重分布
+
+		assertTrue(IDCardUtil.check(new IDCardGenerator().next()));// 默认参数
+	}
+
+	/**
+	 * 测试相同种子生成相同结果，并行生成不影响结果
+	 */
+	@Test
+	public void testGenerateFile(@TempDir File tempDir) throws IOException {
+		char[] ids = new char[COUNT * 18];
+		new IDCardGenerator(2015).generate(ids, 0, COUNT);
+
+		File file = new File(tempDir, "id.txt");
+		new IDCardGenerator(2015).generate(file, COUNT);
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		assertEquals(COUNT * 19, bytes.length);
+
+		IDCardUtil.CheckResult result = IDCardUtil.checkAll(ByteBuffer.wrap(bytes));
+		assertEquals(COUNT, result.getValidCount());
+		char[] fileIds = new char[COUNT * 18];
+		for (int i = 0; i < COUNT; i++)
+			for (int j = 0; j < 18; j++)
+				fileIds[i * 18 + j] = (char) bytes[i * 19 + j];
+		assertArrayEquals(ids, fileIds);
+	}
+
+	/**
+	 * 测试非法参数
+	 */
+	@Test
+	public void testIllegalArgument() {
+		IDCardGenerator generator = new IDCardGenerator();
+		assertThrows(IllegalArgumentException.class, () -> generator.setRegions(new int[] { 990101 }, null));
+		assertThrows(IllegalArgumentException.class, () -> generator.setMaleRatio(1.5));
+		assertThrows(IllegalArgumentException.class,
+				() -> generator.setBirthRange(LocalDate.of(2000, 1, 1), LocalDate.of(1999, 1, 1)));
+	}
+
+}
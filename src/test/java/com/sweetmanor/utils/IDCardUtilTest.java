@@ -2,10 +2,22 @@ package com.sweetmanor.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
 
 import org.apache.commons.lang3.time.DateUtils;
 import org.junit.jupiter.api.Test;
@@ -62,6 +74,165 @@ public class IDCardUtilTest {
 		assertFalse(IDCardUtil.check(wrongCard));
 	}
 
+	/**
+	 * 测试快速校验，结果必须与 check 方法一致
+	 */
+	@Test
+	public void testFastCheck() {
+		assertTrue(IDCardUtil.fastCheck(idCard));
+		assertTrue(IDCardUtil.fastCheck(idCard15));
+		assertFalse(IDCardUtil.fastCheck(wrongCard));
+		assertFalse(IDCardUtil.fastCheck(null));
+
+		String line = "name," + idCard + ",other";// 带偏移量的校验
+		assertTrue(IDCardUtil.fastCheck(line, 5, 18));
+		assertTrue(IDCardUtil.fastCheck(line.toCharArray(), 5, 18));
+		assertTrue(IDCardUtil.fastCheck(line.getBytes(StandardCharsets.US_ASCII), 5, 18));
+		assertFalse(IDCardUtil.fastCheck(line, 4, 18));
+
+		// 边界日期：儒略历闰日、格里高利历切换前后、世纪闰年，与 check 比对
+		for (String date : new String[] { "00010101", "15000229", "15821004", "15821015", "20000229" }) {
+			String body = "110102" + date + "031";
+			for (char c : "0123456789Xx".toCharArray())
+				assertCheckEquals(body + c);
+		}
+		for (String date : new String[] { "000229", "460101", "450101", "001231" })
+			assertCheckEquals("110102" + date + "031");
+
+		// 不存在的日期：公元0年、非闰年的2月29日、切换跳过的日期、月日越界。check 会在标准错误输出中打印解析错误，只验证快速校验
+		for (String date : new String[] { "00000101", "15010229", "15821005", "17000229", "21060230", "20011301",
+				"20010100" }) {
+			String body = "110102" + date + "031";
+			for (char c : "0123456789Xx".toCharArray())
+				assertFastCheckFalse(body + c);
+		}
+		assertFastCheckFalse("110102970229031");
+
+		// 随机变换出生日期以外的字符，比对两种校验方式的结果；出生日期保持合法，避免 check 打印解析错误
+		Random random = new Random(20151231);
+		String chars = "0123456789Xx -a";
+		for (int i = 0; i < 20_000; i++) {
+			boolean is18 = random.nextBoolean();
+			char[] card = (is18 ? idCard : idCard15).toCharArray();
+			int dateEnd = is18 ? 14 : 12;
+			int changes = random.nextInt(3);
+			for (int j = 0; j < changes; j++) {
+				int index = random.nextInt(card.length - (dateEnd - 6));
+				if (index >= 6)
+					index += dateEnd - 6; // 跳过出生日期
+				card[index] = chars.charAt(random.nextInt(chars.length()));
+			}
+			assertCheckEquals(new String(card));
+		}
+	}
+
+	private void assertFastCheckFalse(String card) {
+		assertFalse(IDCardUtil.fastCheck(card), card);
+		assertFalse(IDCardUtil.fastCheck(card.toCharArray(), 0, card.length()), card);
+		assertFalse(IDCardUtil.fastCheck(card.getBytes(StandardCharsets.US_ASCII), 0, card.length()), card);
+	}
+
+	private void assertCheckEquals(String card) {
+		boolean expected = IDCardUtil.check(card);
+		assertEquals(expected, IDCardUtil.fastCheck(card), card);
+		assertEquals(expected, IDCardUtil.fastCheck(card.toCharArray(), 0, card.length()), card);
+		assertEquals(expected, IDCardUtil.fastCheck(card.getBytes(StandardCharsets.US_ASCII), 0, card.length()), card);
+	}
+
+	/**
+	 * 测试批量校验，行数超过单个任务的处理上限以覆盖并行拆分
+	 */
+	@Test
+	public void testCheckAll() {
+		String[] samples = { idCard, idCard15, wrongCard, "11010221060515031", "1101022106051503a9", "000102210605150319",
+				"110102210613150319", null };
+		int[] codes = { IDCardUtil.VALID, IDCardUtil.VALID, IDCardUtil.BAD_CHECKSUM, IDCardUtil.BAD_LENGTH,
+				IDCardUtil.BAD_FORMAT, IDCardUtil.BAD_PROVINCE, IDCardUtil.BAD_DATE, IDCardUtil.BAD_LENGTH };
+
+		int rows = 50_000;
+		List<String> list = new ArrayList<>(rows);
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < rows; i++) {
+			String card = samples[i % samples.length];
+			list.add(card);
+			text.append(card == null ? "" : card).append(i % 2 == 0 ? "\r\n" : "\n");
+		}
+
+		IDCardUtil.CheckResult[] results = { IDCardUtil.checkAll(list), IDCardUtil.checkAll(list.toArray(new String[0])),
+				IDCardUtil.checkAll(ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.US_ASCII))) };
+		for (IDCardUtil.CheckResult result : results) {
+			assertEquals(rows, result.getTotal());
+			for (int i = 0; i < rows; i++)
+				assertEquals(codes[i % codes.length] == IDCardUtil.VALID, result.isValid(i), "row " + i);
+			assertEquals(rows / samples.length * 2, result.getValidCount());
+			assertEquals(rows / samples.length * 2, result.getRejectCount(IDCardUtil.BAD_LENGTH));
+			assertEquals(rows / samples.length, result.getRejectCount(IDCardUtil.BAD_DATE));
+			assertEquals(0, result.nextValid(0));
+			assertEquals(samples.length, result.nextValid(2));
+			assertEquals(result.getValidCount(), result.getValid().cardinality());
+		}
+
+		// 返回的是副本，修改不影响结果
+		IDCardUtil.CheckResult result = results[0];
+		result.getValid().clear();
+		assertTrue(result.isValid(0));
+		assertEquals(rows / samples.length * 2, result.getValid().cardinality());
+	}
+
+	/**
+	 * 测试一次解析获取全部字段
+	 */
+	@Test
+	public void testParse() {
+		IDCardUtil.IDCardInfo info = IDCardUtil.parse(idCard);
+		assertTrue(info.isValid());
+		assertTrue(info.isFullLength());
+		assertEquals(110102, info.getRegionCode());
+		assertEquals(IDCardUtil.getProvince(idCard), info.getProvince());
+		assertEquals(IDCardUtil.getGender(idCard), info.getGender());
+		assertEquals(IDCardUtil.getBirthday(idCard), info.getBirthDate());
+
+		info = IDCardUtil.parse(idCard15);
+		assertTrue(info.isValid());
+		assertFalse(info.isFullLength());
+		assertEquals(IDCardUtil.getBirthday(idCard15), info.getBirthDate());
+		assertEquals("男", info.getGender());
+
+		info = IDCardUtil.parse(wrongCard);// 校验位错误时其他字段仍然可以读取
+		assertEquals(IDCardUtil.BAD_CHECKSUM, info.getCheckCode());
+		assertEquals("北京", info.getProvince());
+		assertEquals("男", info.getGender());
+
+		info = IDCardUtil.parse("abc");
+		assertFalse(info.isValid());
+		assertNull(info.getProvince());
+		assertNull(info.getGender());
+		assertNull(info.getBirthDate());
+
+		// 压缩格式
+		long packed = IDCardUtil.parseToLong(idCard);
+		assertTrue(IDCardUtil.isValid(packed));
+		assertEquals(11, IDCardUtil.getProvinceCode(packed));
+		assertTrue(IDCardUtil.isMale(packed));
+		assertEquals(LocalDate.of(2106, 5, 15).toEpochDay(), IDCardUtil.getBirthEpochDay(packed));
+		assertEquals(LocalDate.of(1970, 1, 1).toEpochDay(),
+				IDCardUtil.getBirthEpochDay(IDCardUtil.parseToLong("11010219700101031" + "8")));
+		// 1582-10-15之前按儒略历计算，与 GregorianCalendar 一致
+		for (String card : new String[] { "110102000101010319", "110102150002290311", "110102158210040318",
+				"110102158210150310", "110102199912310315" }) {
+			info = IDCardUtil.parse(card);
+			assertEquals(IDCardUtil.getBirthday(card), info.getBirthDate(), card);
+			GregorianCalendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+			cal.clear();
+			cal.set(Integer.parseInt(card.substring(6, 10)), Integer.parseInt(card.substring(10, 12)) - 1,
+					Integer.parseInt(card.substring(12, 14)));
+			assertEquals(Math.floorDiv(cal.getTimeInMillis(), 86_400_000L), info.getBirthEpochDay(), card);
+		}
+		assertEquals(1, IDCardUtil.parse("110102158210150310").getBirthEpochDay()
+				- IDCardUtil.parse("110102158210040318").getBirthEpochDay());
+		assertEquals(new IDCardUtil.IDCardInfo(packed), IDCardUtil.parse(idCard));
+	}
+
 	/**
 	 * 测试把15位身份证号码转换为18位
 	 */
@@ -70,6 +241,42 @@ public class IDCardUtilTest {
 		assertEquals("11010220060515031X", IDCardUtil.convertIdcarBy15bit(idCard15));
 	}
 
+	/**
+	 * 测试把15位身份证号码批量转换为18位，写入缓冲区或输出流
+	 */
+	@Test
+	public void testConvertTo18() throws IOException {
+		char[] chars = new char[20];
+		assertTrue(IDCardUtil.convertTo18(" " + idCard15, 0, 16, chars, 2));
+		assertEquals("11010220060515031X", new String(chars, 2, 18));
+
+		byte[] bytes = new byte[18];
+		assertTrue(IDCardUtil.convertTo18(idCard15.getBytes(StandardCharsets.US_ASCII), 0, 15, bytes, 0));
+		assertEquals("11010220060515031X", new String(bytes, StandardCharsets.US_ASCII));
+
+		assertFalse(IDCardUtil.convertTo18(idCard, 0, 18, chars, 0));// 18位身份证不转换
+		assertFalse(IDCardUtil.convertTo18("110102970229031", 0, 15, chars, 0));// 出生日期错误
+		assertFalse(IDCardUtil.convertTo18("000102060515031", 0, 15, chars, 0));// 省份错误
+
+		// 转换结果必须通过校验，并且与原号码的出生日期一致；只生成存在的日期，避免 check 打印解析错误
+		Random random = new Random(20151231);
+		for (int i = 0; i < 1000; i++) {
+			String card = String.format("1101%02d%02d%02d%02d%03d", random.nextInt(100), random.nextInt(100),
+					random.nextInt(12) + 1, random.nextInt(28) + 1, random.nextInt(1000));
+			String card18 = IDCardUtil.convertIdcarBy15bit(card);
+			assertEquals(IDCardUtil.check(card), card18 != null, card);
+			if (card18 != null) {
+				assertTrue(IDCardUtil.check(card18), card18);
+				assertEquals(IDCardUtil.getBirthday(card), IDCardUtil.getBirthday(card18));
+			}
+		}
+
+		StringWriter out = new StringWriter();
+		int count = IDCardUtil.convertAll(Arrays.asList(idCard15, "abc", null, idCard15), out);
+		assertEquals(2, count);
+		assertEquals("11010220060515031X\n\n\n11010220060515031X\n", out.toString());
+	}
+
 	/**
 	 * 测试对身份证号码进行一些标准化处理
 	 */
@@ -0,0 +1,113 @@
+package com.sweetmanor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class KeyFileUtilTest {
+	@TempDir
+	File tempDir;
+
+	/**
+	 * 测试密钥生成、编码格式和缓存
+	 */
+	@Test
+	public void testKeyFiles() throws Exception {
+		File secretFile = new File(tempDir, "keys/aes.key");
+		SecretKey secret = KeyFileUtil.createSecretKey(SecurityUtil.AES, 256, secretFile);
+		assertEquals(32, secretFile.length()); // 原始字节
+		assertSame(secret, KeyFileUtil.readSecretKey(secretFile, SecurityUtil.AES));
+
+		File privateFile = new File(tempDir, "keys/rsa.pk8");
+		File publicFile = new File(tempDir, "keys/rsa.der");
+		KeyPair keyPair = KeyFileUtil.createKeyPair(SecurityUtil.RSA, 2048, privateFile, publicFile);
+		assertEquals(2048, ((RSAPublicKey) keyPair.getPublic()).getModulus().bitLength());
+		assertArrayEquals(keyPair.getPrivate().getEncoded(), Files.readAllBytes(privateFile.toPath()));
+		assertArrayEquals(keyPair.getPublic().getEncoded(), Files.readAllBytes(publicFile.toPath()));
+
+		// 清空缓存后重新解码，之后命中缓存
+		KeyFileUtil.invalidateAll();
+		PrivateKey privateKey = KeyFileUtil.readPrivateKey(privateFile, SecurityUtil.RSA);
+		PublicKey publicKey = KeyFileUtil.readPublicKey(publicFile, SecurityUtil.RSA);
+		assertEquals(keyPair.getPrivate(), privateKey);
+		assertEquals(keyPair.getPublic(), publicKey);
+		assertSame(privateKey, KeyFileUtil.readPrivateKey(privateFile, SecurityUtil.RSA));
+		assertSame(publicKey, KeyFileUtil.readPublicKey(publicFile, SecurityUtil.RSA));
+
+		// 显式失效
+		KeyFileUtil.invalidate(publicFile);
+		assertNotSame(publicKey, KeyFileUtil.readPublicKey(publicFile, SecurityUtil.RSA));
+
+		// 文件被其它程序修改后重新读取
+		SecretKey cached = KeyFileUtil.readSecretKey(secretFile, SecurityUtil.AES);
+		Files.write(secretFile.toPath(), new byte[16]);
+		SecretKey reloaded = KeyFileUtil.readSecretKey(secretFile, SecurityUtil.AES);
+		assertNotSame(cached, reloaded);
+		assertArrayEquals(new byte[16], reloaded.getEncoded());
+
+		// EC 密钥
+		File ecPrivate = new File(tempDir, "ec.pk8");
+		File ecPublic = new File(tempDir, "ec.der");
+		KeyPair ec = KeyFileUtil.createKeyPair("EC", 256, ecPrivate, ecPublic);
+		KeyFileUtil.invalidateAll();
+		assertEquals(ec.getPublic(), KeyFileUtil.readPublicKey(ecPublic, "EC"));
+	}
+
+	/**
+	 * 测试错误的密钥文件
+	 */
+	@Test
+	public void testInvalid() throws IOException {
+		File file = new File(tempDir, "bad.der");
+		Files.write(file.toPath(), new byte[] { 1, 2, 3 });
+		assertThrows(GeneralSecurityException.class, () -> KeyFileUtil.readPublicKey(file, SecurityUtil.RSA));
+		assertThrows(GeneralSecurityException.class, () -> KeyFileUtil.readPrivateKey(file, SecurityUtil.RSA));
+		Files.write(file.toPath(), new byte[0]);
+		assertThrows(GeneralSecurityException.class, () -> KeyFileUtil.readSecretKey(file, SecurityUtil.AES));
+		assertThrows(IOException.class,
+				() -> KeyFileUtil.readSecretKey(new File(tempDir, "missing"), SecurityUtil.AES));
+		assertThrows(GeneralSecurityException.class,
+				() -> KeyFileUtil.createKeyPair(SecurityUtil.RSA, 100, file, file));
+	}
+
+	/**
+	 * 测试对称密钥和私钥文件只允许所有者读写，覆盖已存在的宽权限文件时也是如此
+	 */
+	@Test
+	public void testPermissions() throws Exception {
+		File secretFile = new File(tempDir, "secret.key");
+		Files.write(secretFile.toPath(), new byte[] { 1 });
+		try {
+			Files.setPosixFilePermissions(secretFile.toPath(), PosixFilePermissions.fromString("rw-r--r--"));
+		} catch (UnsupportedOperationException e) {
+			assumeTrue(false, "不支持 POSIX 权限");
+		}
+		KeyFileUtil.createSecretKey(SecurityUtil.AES, 128, secretFile);
+		assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(secretFile.toPath())));
+
+		File privateFile = new File(tempDir, "private.der");
+		File publicFile = new File(tempDir, "public.der");
+		KeyFileUtil.createKeyPair("EC", 256, privateFile, publicFile);
+		assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(privateFile.toPath())));
+		assertEquals(3, tempDir.list().length); // 没有遗留临时文件
+	}
+
+}
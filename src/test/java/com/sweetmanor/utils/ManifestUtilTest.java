@@ -0,0 +1,121 @@
+package com.sweetmanor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ManifestUtilTest {
+	@TempDir
+	File tempDir;
+
+	private File write(String path, String content) throws IOException {
+		File file = new File(tempDir, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/**
+	 * 测试生成清单和增量校验
+	 */
+	@Test
+	public void testBuildAndVerify() throws IOException {
+		for (int i = 0; i < 50; i++)
+			write("data/" + (i % 5) + "/file " + i + ".txt", "content " + i);
+		File changed = write("a.txt", "aaa");
+		File touched = write("b.txt", "bbb");
+		File deleted = write("c.txt", "ccc");
+		File manifest = new File(tempDir, "manifest.txt"); // 清单文件在目录中，不参与计算
+
+		ManifestUtil.Result result = ManifestUtil.build(tempDir, SecurityUtil.SHA256, 4, manifest);
+		assertEquals(53, result.getHashed());
+		assertEquals(53, result.getAdded().size());
+		assertTrue(result.getFailed().isEmpty());
+		assertEquals("data/0/file 0.txt", result.getEntries().get(3).getPath());
+		assertEquals(DigestUtils.sha256Hex("aaa"), result.getEntries().get(0).getHex());
+
+		// 没有变化时全部跳过
+		result = ManifestUtil.verify(tempDir, manifest, 4, false);
+		assertTrue(result.isUnchanged(), result.toString());
+		assertEquals(0, result.getHashed());
+		assertEquals(53, result.getSkipped());
+
+		// 内容改变、只修改时间改变、删除、新增
+		long time = changed.lastModified();
+		write("a.txt", "xyz"); // 大小相同
+		changed.setLastModified(time + 2000);
+		touched.setLastModified(time + 2000);
+		deleted.delete();
+		write("d.txt", "ddd");
+
+		result = ManifestUtil.verify(tempDir, manifest, 2, true);
+		assertFalse(result.isUnchanged());
+		assertEquals(3, result.getHashed());
+		assertEquals(50, result.getSkipped());
+		assertEquals(Collections.singletonList("a.txt"), result.getModified());
+		assertEquals(Collections.singletonList("c.txt"), result.getRemoved());
+		assertEquals(Collections.singletonList("d.txt"), result.getAdded());
+
+		// 清单已更新
+		result = ManifestUtil.verify(tempDir, manifest, 1, false);
+		assertTrue(result.isUnchanged(), result.toString());
+		assertEquals(53, result.getSkipped());
+
+		List<String> lines = Files.readAllLines(manifest.toPath());
+		assertEquals("# " + SecurityUtil.SHA256, lines.get(0));
+		assertTrue(lines.get(1).startsWith(DigestUtils.sha256Hex("xyz") + " 3 "));
+		assertTrue(lines.get(1).endsWith(" a.txt"));
+	}
+
+	/**
+	 * 测试包含换行符的路径不写入清单
+	 */
+	@Test
+	public void testNewlineInPath() throws IOException {
+		write("a.txt", "a");
+		try {
+			write("sub/b\nc.txt", "b");
+		} catch (IOException | InvalidPathException e) {
+			assumeTrue(false, "文件系统不支持包含换行符的文件名");
+		}
+		File manifest = new File(tempDir, "manifest.txt");
+		ManifestUtil.Result result = ManifestUtil.build(tempDir, SecurityUtil.MD5, 2, manifest);
+		assertEquals(1, result.getEntries().size());
+		assertEquals(1, result.getFailed().size());
+		assertEquals(2, Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8).size());
+
+		result = ManifestUtil.verify(tempDir, manifest, 2, false);
+		assertEquals(1, result.getSkipped());
+		assertEquals(Collections.emptyList(), result.getAdded());
+		assertEquals(1, result.getFailed().size());
+	}
+
+	/**
+	 * 测试非法参数和清单格式错误
+	 */
+	@Test
+	public void testInvalid() throws IOException {
+		File manifest = write("manifest.txt", "no header\n");
+		assertThrows(IOException.class, () -> ManifestUtil.verify(tempDir, manifest, 1, false));
+		Files.write(manifest.toPath(), Arrays.asList("# MD5", "abc 1 x a.txt"));
+		assertThrows(IOException.class, () -> ManifestUtil.verify(tempDir, manifest, 1, false));
+		assertThrows(IllegalArgumentException.class, () -> ManifestUtil.build(tempDir, SecurityUtil.MD5, 0, manifest));
+		assertThrows(IllegalArgumentException.class, () -> ManifestUtil.build(tempDir, "NO-SUCH", 1, manifest));
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.sweetmanor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class RegionUtilTest {
+
+	/**
+	 * 测试按地址码查询各级区划名称
+	 */
+	@Test
+	public void testGetRegion() {
+		assertEquals("西城区", RegionUtil.getRegion(110102));
+		assertEquals("北京市", RegionUtil.getProvince(110102));
+		assertEquals("市辖区", RegionUtil.getCity(110102));
+		assertEquals("西城区", RegionUtil.getCounty(110102));
+
+		assertEquals("杭州市", RegionUtil.getRegion(330100));
+		assertEquals("杭州市", RegionUtil.getCity(330100));
+		assertNull(RegionUtil.getCounty(330100));
+		assertNull(RegionUtil.getCity(330000));
+
+		assertEquals("新疆维吾尔自治区", RegionUtil.getProvince(659001));
+		assertEquals("自治区直辖县级行政区划", RegionUtil.getCity(659001));
+		assertEquals("石河子市", RegionUtil.getCounty(659001));
+		assertEquals("崖州区", RegionUtil.getRegion(460205));
+		assertTrue(RegionUtil.getCodes().length > 3000); // 完整代码表
+
+		assertNull(RegionUtil.getRegion(990101));
+		assertNull(RegionUtil.getRegion(-1));
+		assertNull(RegionUtil.getRegion(1_000_000));
+	}
+
+	/**
+	 * 测试通过身份证解析结果查询区划
+	 */
+	@Test
+	public void testIDCardRegion() {
+		IDCardUtil.IDCardInfo info = IDCardUtil.parse("110102210605150319");
+		assertEquals("西城区", info.getCounty());
+		assertEquals("北京市", RegionUtil.getProvince(info.getRegionCode()));
+	}
+
+}
@@ -0,0 +1,371 @@
+package com.sweetmanor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SecurityUtilTest {
+	@TempDir
+	File tempDir;
+
+	/**
+	 * 创建指定大小的随机内容文件
+	 */
+	private File createFile(String name, int size) throws IOException {
+		byte[] content = new byte[size];
+		new Random(size).nextBytes(content);
+		File file = new File(tempDir, name);
+		Files.write(file.toPath(), content);
+		return file;
+	}
+
+	/**
+	 * 测试文件摘要，结果必须与 commons-codec 一致，大文件覆盖内存映射读取
+	 */
+	@Test
+	public void testDigest() throws IOException {
+		String[] algorithms = { SecurityUtil.MD5, SecurityUtil.SHA1, SecurityUtil.SHA256, SecurityUtil.SHA512 };
+		File[] files = { createFile("empty", 0), createFile("small", 1000), createFile("buffer", (1 << 20) * 3 + 7),
+				createFile("mapped", (1 << 26) + 13) };
+		for (File file : files) {
+			for (String algorithm : algorithms) {
+				SecurityUtil.DigestResult result = SecurityUtil.digest(file, algorithm);
+				String expected;
+				try (InputStream in = Files.newInputStream(file.toPath())) {
+					expected = new DigestUtils(algorithm).digestAsHex(in);
+				}
+				assertEquals(expected, result.getHex(), file.getName() + " " + algorithm);
+				assertEquals(file.length(), result.getBytes());
+				assertTrue(result.getNanos() > 0);
+				assertTrue(result.toString().startsWith(algorithm + " " + expected));
+			}
+		}
+
+		File small = files[1];
+		assertEquals(DigestUtils.md5Hex(Files.readAllBytes(small.toPath())), SecurityUtil.md5(small));
+		assertEquals(DigestUtils.sha1Hex(Files.readAllBytes(small.toPath())), SecurityUtil.sha(small));
+
+		assertThrows(IllegalArgumentException.class, () -> SecurityUtil.digest(small, "NO-SUCH"));
+	}
+
+	/**
+	 * 测试按文件范围更新摘要
+	 */
+	@Test
+	public void testUpdateRange() throws IOException {
+		File file = createFile("range", 5000);
+		byte[] content = Files.readAllBytes(file.toPath());
+		MessageDigest md = SecurityUtil.messageDigest(SecurityUtil.SHA256);
+		try (FileChannel channel = FileChannel.open(file.toPath())) {
+			assertEquals(1000, SecurityUtil.update(md, channel, 100, 1000));
+			assertEquals(900, SecurityUtil.update(md, channel, 4100, 2000)); // 超出文件末尾
+			assertEquals(0, channel.position());
+		}
+		MessageDigest expected = SecurityUtil.messageDigest(SecurityUtil.SHA256);
+		expected.update(content, 100, 1000);
+		expected.update(content, 4100, 900);
+		assertTrue(MessageDigest.isEqual(expected.digest(), md.digest()));
+	}
+
+	/**
+	 * 测试分块树形摘要、局部重新计算和局部校验
+	 */
+	@Test
+	public void testTreeHash() throws IOException {
+		int chunkSize = 1 << 20;
+		File file = createFile("tree", chunkSize * 5 + 123);
+		byte[] content = Files.readAllBytes(file.toPath());
+
+		SecurityUtil.TreeHash hash = SecurityUtil.treeHash(file, SecurityUtil.SHA256, chunkSize);
+		assertEquals(6, hash.getChunkCount());
+		assertEquals(content.length, hash.getHashedBytes());
+		MessageDigest root = SecurityUtil.messageDigest(SecurityUtil.SHA256);
+		root.update(ByteBuffer.allocate(13).put((byte) 1).putInt(chunkSize).putLong(content.length).array());
+		for (int i = 0; i < hash.getChunkCount(); i++) {
+			int from = i * chunkSize, to = Math.min(content.length, from + chunkSize);
+			MessageDigest leaf = SecurityUtil.messageDigest(SecurityUtil.SHA256);
+			leaf.update((byte) 0);
+			leaf.update(content, from, to - from);
+			byte[] chunk = leaf.digest();
+			assertArrayEquals(chunk, hash.getChunkDigest(i));
+			root.update(chunk);
+		}
+		assertArrayEquals(root.digest(), hash.getRoot());
+		assertTrue(SecurityUtil.verifyChunks(file, hash, 0, hash.getChunkCount()).isEmpty());
+
+		// 修改第2块和最后一块
+		content[chunkSize * 2 + 10]++;
+		content[content.length - 1]++;
+		Files.write(file.toPath(), content);
+		BitSet mismatches = SecurityUtil.verifyChunks(file, hash, 0, hash.getChunkCount());
+		assertEquals("{2, 5}", mismatches.toString());
+		assertTrue(SecurityUtil.verifyChunks(file, hash, 3, 5).isEmpty());
+
+		SecurityUtil.TreeHash partial = SecurityUtil.treeHash(file, hash, 2, 3);
+		assertEquals(chunkSize, partial.getHashedBytes());
+		partial = SecurityUtil.treeHash(file, partial, 5, 6);
+		assertEquals(123, partial.getHashedBytes());
+		assertEquals(SecurityUtil.treeHash(file, SecurityUtil.SHA256, chunkSize).getRootHex(), partial.getRootHex());
+
+		// 文件长度改变
+		Files.write(file.toPath(), Arrays.copyOf(content, 100));
+		assertEquals(6, SecurityUtil.verifyChunks(file, hash, 0, 6).cardinality());
+		assertThrows(IOException.class, () -> SecurityUtil.treeHash(file, hash, 0, 1));
+
+		// 块大小和文件长度参与根摘要，单块文件的根摘要不等于块摘要
+		File empty = createFile("empty", 0);
+		assertEquals(0, SecurityUtil.treeHash(empty, SecurityUtil.MD5, 4096).getChunkCount());
+		assertFalse(SecurityUtil.treeHash(empty, SecurityUtil.MD5, 4096).getRootHex()
+				.equals(SecurityUtil.treeHash(empty, SecurityUtil.MD5, 8192).getRootHex()));
+		SecurityUtil.TreeHash single = SecurityUtil.treeHash(createFile("single", 100), SecurityUtil.MD5, 4096);
+		assertFalse(Arrays.equals(single.getChunkDigest(0), single.getRoot()));
+		assertThrows(IllegalArgumentException.class, () -> SecurityUtil.treeHash(file, SecurityUtil.MD5, 0));
+		assertThrows(IllegalArgumentException.class, () -> SecurityUtil.treeHash(file, SecurityUtil.MD5, 16));
+		assertThrows(IndexOutOfBoundsException.class, () -> SecurityUtil.verifyChunks(file, hash, 2, 7));
+	}
+
+	/**
+	 * 测试流式文件加密、解密和认证失败
+	 */
+	@Test
+	public void testEncryptFile() throws Exception {
+		SecretKey key = KeyGenerator.getInstance(SecurityUtil.AES).generateKey();
+		for (int size : new int[] { 0, 1000, (1 << 20) * 3 + 5 }) {
+			File plain = createFile("plain" + size, size);
+			File encrypted = new File(tempDir, "encrypted" + size);
+			File decrypted = new File(tempDir, "decrypted" + size);
+
+			SecurityUtil.CipherResult result = SecurityUtil.encryptFile(plain, encrypted, key);
+			assertEquals(size, result.getBytes());
+			assertEquals(size + 21 + 32, encrypted.length()); // 文件头 + 密文 + 认证标签
+			result = SecurityUtil.decryptFile(encrypted, decrypted, key);
+			assertEquals(size, result.getBytes());
+			assertArrayEquals(Files.readAllBytes(plain.toPath()), Files.readAllBytes(decrypted.toPath()));
+		}
+
+		// 相同明文每次加密结果不同
+		File plain = createFile("plain", 5000);
+		File encrypted = new File(tempDir, "encrypted");
+		File decrypted = new File(tempDir, "decrypted");
+		SecurityUtil.encryptFile(plain, encrypted, key);
+		byte[] first = Files.readAllBytes(encrypted.toPath());
+		SecurityUtil.encryptFile(plain, encrypted, key);
+		byte[] content = Files.readAllBytes(encrypted.toPath());
+		assertFalse(Arrays.equals(first, content));
+
+		// 篡改密文、使用错误密钥
+		content[100] ^= 1;
+		Files.write(encrypted.toPath(), content);
+		assertThrows(AEADBadTagException.class, () -> SecurityUtil.decryptFile(encrypted, decrypted, key));
+		assertFalse(decrypted.exists());
+		content[100] ^= 1;
+		Files.write(encrypted.toPath(), content);
+		SecretKey wrongKey = KeyGenerator.getInstance(SecurityUtil.AES).generateKey();
+		assertThrows(AEADBadTagException.class, () -> SecurityUtil.decryptFile(encrypted, decrypted, wrongKey));
+		Files.write(encrypted.toPath(), Arrays.copyOf(content, 40));
+		Files.write(decrypted.toPath(), new byte[] { 1 });
+		assertThrows(IOException.class, () -> SecurityUtil.decryptFile(encrypted, decrypted, key));
+		assertFalse(decrypted.exists());
+
+		// 原文件加密方法使用新格式
+		SecurityUtil.aesEncode(plain.getPath(), encrypted.getPath(), key);
+		SecurityUtil.aesDecode(encrypted.getPath(), decrypted.getPath(), key);
+		assertArrayEquals(Files.readAllBytes(plain.toPath()), Files.readAllBytes(decrypted.toPath()));
+	}
+
+	/**
+	 * 测试分段并行加密、解密和随机访问解密
+	 */
+	@Test
+	public void testEncryptSegmented() throws Exception {
+		SecretKey key = KeyGenerator.getInstance(SecurityUtil.AES).generateKey();
+		int segmentSize = 64 * 1024;
+		for (int size : new int[] { 0, 1000, segmentSize, segmentSize * 40 + 17 }) {
+			File plain = createFile("plain" + size, size);
+			File encrypted = new File(tempDir, "encrypted" + size);
+			File decrypted = new File(tempDir, "decrypted" + size);
+			int count = Math.max(1, (size + segmentSize - 1) / segmentSize);
+
+			assertEquals(size, SecurityUtil.encryptSegmented(plain, encrypted, key, segmentSize).getBytes());
+			assertEquals(29 + size + count * 16, encrypted.length());
+			assertEquals(count, SecurityUtil.getSegmentCount(encrypted));
+			assertEquals(size, SecurityUtil.decryptSegmented(encrypted, decrypted, key).getBytes());
+			byte[] content = Files.readAllBytes(plain.toPath());
+			assertArrayEquals(content, Files.readAllBytes(decrypted.toPath()));
+
+			int last = count - 1;
+			assertArrayEquals(Arrays.copyOfRange(content, last * segmentSize, size),
+					SecurityUtil.decryptSegment(encrypted, key, last));
+		}
+
+		File plain = createFile("plain", segmentSize * 3);
+		File encrypted = new File(tempDir, "encrypted");
+		File decrypted = new File(tempDir, "decrypted");
+		SecurityUtil.encryptSegmented(plain, encrypted, key, segmentSize);
+		byte[] content = Files.readAllBytes(encrypted.toPath());
+		assertArrayEquals(Arrays.copyOfRange(Files.readAllBytes(plain.toPath()), segmentSize, segmentSize * 2),
+				SecurityUtil.decryptSegment(encrypted, key, 1));
+		assertThrows(IndexOutOfBoundsException.class, () -> SecurityUtil.decryptSegment(encrypted, key, 3));
+
+		// 篡改第2段：只有该段认证失败
+		content[29 + (segmentSize + 16) * 2 + 5] ^= 1;
+		Files.write(encrypted.toPath(), content);
+		assertThrows(AEADBadTagException.class, () -> SecurityUtil.decryptSegmented(encrypted, decrypted, key));
+		assertFalse(decrypted.exists());
+		assertThrows(AEADBadTagException.class, () -> SecurityUtil.decryptSegment(encrypted, key, 2));
+		assertEquals(segmentSize, SecurityUtil.decryptSegment(encrypted, key, 0).length);
+
+		// 交换两段的位置
+		content[29 + (segmentSize + 16) * 2 + 5] ^= 1;
+		byte[] swapped = content.clone();
+		System.arraycopy(content, 29, swapped, 29 + segmentSize + 16, segmentSize + 16);
+		System.arraycopy(content, 29 + segmentSize + 16, swapped, 29, segmentSize + 16);
+		Files.write(encrypted.toPath(), swapped);
+		assertThrows(AEADBadTagException.class, () -> SecurityUtil.decryptSegment(encrypted, key, 0));
+
+		// 截短
+		Files.write(encrypted.toPath(), Arrays.copyOf(content, content.length - 16));
+		Files.write(decrypted.toPath(), new byte[] { 1 });
+		assertThrows(IOException.class, () -> SecurityUtil.decryptSegmented(encrypted, decrypted, key));
+		assertFalse(decrypted.exists());
+		assertThrows(IllegalArgumentException.class, () -> SecurityUtil.encryptSegmented(plain, encrypted, key, 0));
+	}
+
+	/**
+	 * 测试线程复用的 Cipher、MessageDigest 和缓冲区加密
+	 */
+	@Test
+	public void testThreadCache() throws Exception {
+		SecretKey key = KeyGenerator.getInstance(SecurityUtil.AES).generateKey();
+		SecretKey otherKey = KeyGenerator.getInstance(SecurityUtil.AES).generateKey();
+		assertSame(SecurityUtil.threadCipher(SecurityUtil.AES, Cipher.ENCRYPT_MODE, key),
+				SecurityUtil.threadCipher(SecurityUtil.AES, Cipher.DECRYPT_MODE, otherKey));
+		assertSame(SecurityUtil.threadDigest(SecurityUtil.MD5), SecurityUtil.threadDigest(SecurityUtil.MD5));
+		assertSame(SecurityUtil.threadDigest(SecurityUtil.MD5), SecurityUtil.threadDigest("md5")); // 算法名不区分大小写
+
+		// 每个线程最多缓存8个算法，超出后每次创建新对象
+		SecurityUtil.releaseThreadCache();
+		String[] algorithms = { "MD2", "MD5", "SHA-1", "SHA-224", "SHA-256", "SHA-384", "SHA-512", "SHA3-256",
+				"SHA3-384", "SHA3-512" };
+		for (String algorithm : algorithms)
+			SecurityUtil.threadDigest(algorithm);
+		assertSame(SecurityUtil.threadDigest("SHA3-256"), SecurityUtil.threadDigest("SHA3-256"));
+		assertNotSame(SecurityUtil.threadDigest("SHA3-512"), SecurityUtil.threadDigest("SHA3-512"));
+		SecurityUtil.releaseThreadCache();
+
+		ByteBuffer input = ByteBuffer.allocateDirect(64);
+		ByteBuffer output = ByteBuffer.allocateDirect(64);
+		ByteBuffer plain = ByteBuffer.allocate(64);
+		for (int i = 0; i < 100; i++) {
+			String content = "token-" + i;
+			SecretKey current = i % 3 == 0 ? otherKey : key; // 交替使用不同密钥
+			byte[] expected = SecurityUtil.aesEncode(content, current);
+
+			input.clear();
+			input.put(content.getBytes()).flip();
+			output.clear();
+			assertEquals(expected.length, SecurityUtil.aesEncode(input, output, current));
+			assertFalse(input.hasRemaining());
+			output.flip();
+			byte[] encrypted = new byte[output.remaining()];
+			output.duplicate().get(encrypted);
+			assertArrayEquals(expected, encrypted);
+
+			plain.clear();
+			SecurityUtil.aesDecode(output, plain, current);
+			assertEquals(content, new String(plain.array(), 0, plain.position()));
+		}
+
+		// 密文长度错误导致异常后仍然可以继续使用
+		byte[] encrypted = SecurityUtil.aesEncode("token", key);
+		assertThrows(GeneralSecurityException.class, () -> SecurityUtil
+				.aesDecode(ByteBuffer.wrap(Arrays.copyOf(encrypted, 15)), ByteBuffer.allocate(64), key));
+		assertEquals("token", new String(SecurityUtil.aesDecode(encrypted, key)));
+		assertThrows(ShortBufferException.class,
+				() -> SecurityUtil.aesEncode(ByteBuffer.wrap(new byte[20]), ByteBuffer.allocate(16), key));
+		assertArrayEquals(encrypted, SecurityUtil.aesEncode("token", key));
+
+		assertArrayEquals(DigestUtils.sha256("abc".getBytes()),
+				SecurityUtil.digest(ByteBuffer.wrap("abc".getBytes()), SecurityUtil.SHA256));
+		SecurityUtil.releaseThreadCache();
+		assertEquals(DigestUtils.md5Hex("abc"), SecurityUtil.md5("abc"));
+	}
+
+	/**
+	 * 测试数字信封加密、解密
+	 */
+	@Test
+	public void testEnvelope() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance(SecurityUtil.RSA);
+		generator.initialize(1024);
+		KeyPair keyPair = generator.generateKeyPair();
+		RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+		RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
+		RSAPrivateKey wrongKey = (RSAPrivateKey) generator.generateKeyPair().getPrivate();
+
+		// 字节数组：内容远大于RSA密钥长度
+		for (int size : new int[] { 0, 100, 100_000 }) {
+			byte[] content = new byte[size];
+			new Random(size).nextBytes(content);
+			byte[] envelope = SecurityUtil.sealEnvelope(content, publicKey);
+			assertEquals(4 + 1 + 2 + 128 + 21 + size + 32, envelope.length);
+			assertArrayEquals(content, SecurityUtil.openEnvelope(envelope, privateKey));
+		}
+		byte[] envelope = SecurityUtil.sealEnvelope("export".getBytes(), publicKey);
+		assertThrows(GeneralSecurityException.class, () -> SecurityUtil.openEnvelope(envelope, wrongKey));
+		envelope[envelope.length - 40] ^= 1;
+		assertThrows(AEADBadTagException.class, () -> SecurityUtil.openEnvelope(envelope, privateKey));
+		assertThrows(IllegalArgumentException.class,
+				() -> SecurityUtil.openEnvelope(Arrays.copyOf(envelope, 20), privateKey));
+
+		// 文件：与字节数组格式相同
+		File plain = createFile("plain", (1 << 20) * 2 + 3);
+		File sealed = new File(tempDir, "sealed");
+		File opened = new File(tempDir, "opened");
+		assertEquals(plain.length(), SecurityUtil.sealEnvelope(plain, sealed, publicKey).getBytes());
+		assertEquals(plain.length(), SecurityUtil.openEnvelope(sealed, opened, privateKey).getBytes());
+		byte[] content = Files.readAllBytes(plain.toPath());
+		assertArrayEquals(content, Files.readAllBytes(opened.toPath()));
+		assertArrayEquals(content, SecurityUtil.openEnvelope(Files.readAllBytes(sealed.toPath()), privateKey));
+
+		Files.delete(opened.toPath());
+		assertThrows(GeneralSecurityException.class, () -> SecurityUtil.openEnvelope(sealed, opened, wrongKey));
+		assertFalse(opened.exists());
+		byte[] tampered = Files.readAllBytes(sealed.toPath());
+		tampered[1000] ^= 1;
+		Files.write(sealed.toPath(), tampered);
+		assertThrows(AEADBadTagException.class, () -> SecurityUtil.openEnvelope(sealed, opened, privateKey));
+		assertFalse(opened.exists());
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.sweetmanor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+public class SignatureServiceTest {
+
+	/**
+	 * 测试同步签名和批量异步签名、验证
+	 */
+	@Test
+	public void testSignAndVerify() throws Exception {
+		for (String[] algorithm : new String[][] { { SecurityUtil.RSA, SecurityUtil.SHA256_WITH_RSA, "2048" },
+				{ "EC", SecurityUtil.SHA256_WITH_ECDSA, "256" } }) {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm[0]);
+			generator.initialize(Integer.parseInt(algorithm[2]));
+			KeyPair keyPair = generator.generateKeyPair();
+			String signAlgorithm = algorithm[1];
+
+			byte[] data = "webhook".getBytes();
+			byte[] sign = SecurityUtil.sign(data, keyPair.getPrivate(), signAlgorithm);
+			assertTrue(SecurityUtil.verify(data, sign, keyPair.getPublic(), signAlgorithm));
+			assertFalse(SecurityUtil.verify("other".getBytes(), sign, keyPair.getPublic(), signAlgorithm));
+			assertFalse(SecurityUtil.verify(data, new byte[] { 1, 2, 3 }, keyPair.getPublic(), signAlgorithm));
+
+			try (SignatureService service = new SignatureService(signAlgorithm, keyPair.getPrivate(),
+					keyPair.getPublic(), 4)) {
+				List<byte[]> messages = new ArrayList<>();
+				for (int i = 0; i < 300; i++)
+					messages.add(("message " + i).getBytes());
+				List<CompletableFuture<byte[]>> signs = service.signAll(messages);
+				assertEquals(messages.size(), signs.size());
+
+				List<byte[]> results = new ArrayList<>();
+				for (int i = 0; i < messages.size(); i++) {
+					results.add(signs.get(i).get());
+					assertTrue(SecurityUtil.verify(messages.get(i), results.get(i), keyPair.getPublic(), signAlgorithm));
+				}
+				results.set(7, results.get(8)); // 第7个签名错误
+				List<CompletableFuture<Boolean>> verified = service.verifyAll(messages, results);
+				for (int i = 0; i < messages.size(); i++)
+					assertEquals(i != 7, verified.get(i).get(), "message " + i);
+
+				assertTrue(service.verify(data, sign).get());
+				assertFalse(service.verify(data, new byte[] { 1 }).get());
+				assertEquals(2 * messages.size() + 2, service.getCompletedCount());
+				assertEquals(0, service.getQueueDepth());
+				assertTrue(service.getMaxLatency() >= service.getAverageLatency());
+				assertTrue(service.getAverageLatency() > 0);
+			}
+		}
+	}
+
+	/**
+	 * 测试非法参数和关闭后提交
+	 */
+	@Test
+	public void testInvalid() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance(SecurityUtil.RSA);
+		generator.initialize(1024);
+		KeyPair keyPair = generator.generateKeyPair();
+
+		assertThrows(IllegalArgumentException.class,
+				() -> new SignatureService(SecurityUtil.SHA256_WITH_RSA, null, null, 1));
+		assertThrows(IllegalArgumentException.class,
+				() -> new SignatureService(SecurityUtil.SHA256_WITH_RSA, keyPair.getPrivate(), null, 0));
+		assertThrows(IllegalArgumentException.class,
+				() -> new SignatureService(SecurityUtil.SHA256_WITH_RSA, keyPair.getPrivate(), null, 1, 0));
+
+		SignatureService service = new SignatureService(SecurityUtil.SHA256_WITH_RSA, keyPair.getPrivate(), null, 1);
+		assertThrows(IllegalStateException.class, () -> service.verify(new byte[1], new byte[1]));
+		service.close();
+		CompletableFuture<byte[]> future = service.sign(new byte[1]);
+		assertThrows(ExecutionException.class, future::get);
+		assertEquals(0, service.getQueueDepth());
+	}
+
+	/**
+	 * 测试等待队列已满时拒绝的消息以异常完成
+	 */
+	@Test
+	public void testQueueFull() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance(SecurityUtil.RSA);
+		generator.initialize(1024);
+		KeyPair keyPair = generator.generateKeyPair();
+
+		try (SignatureService service = new SignatureService(SecurityUtil.SHA256_WITH_RSA, keyPair.getPrivate(), null,
+				1, 1)) {
+			List<byte[]> messages = new ArrayList<>();
+			messages.add(new byte[64 << 20]); // 第一批处理较慢，占住唯一的工作线程
+			for (int i = 1; i < 64 * 4; i++)
+				messages.add(new byte[] { (byte) i });
+			List<CompletableFuture<byte[]>> futures = service.signAll(messages);
+
+			// 第一批在工作线程中，第二批在队列中，其余批次被拒绝
+			for (int i = 0; i < 64 * 2; i++)
+				assertEquals(128, futures.get(i).get().length);
+			for (int i = 64 * 2; i < futures.size(); i++) {
+				ExecutionException e = assertThrows(ExecutionException.class, futures.get(i)::get);
+				assertTrue(e.getCause() instanceof RejectedExecutionException);
+			}
+			assertEquals(0, service.getQueueDepth());
+			assertEquals(128, service.getCompletedCount());
+		}
+	}
+
+}